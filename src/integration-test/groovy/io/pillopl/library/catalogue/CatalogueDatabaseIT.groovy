@@ -1,11 +1,14 @@
 package io.pillopl.library.catalogue
 
+import io.vavr.collection.HashSet
+import io.vavr.collection.List
 import io.vavr.control.Option
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.context.SpringBootTest
 import spock.lang.Specification
 
 import static io.pillopl.library.catalogue.BookFixture.DDD
+import static io.pillopl.library.catalogue.BookFixture.DDD_ISBN_10
 import static io.pillopl.library.catalogue.BookFixture.NON_PRESENT_ISBN
 import static io.pillopl.library.catalogue.BookInstance.instanceOf
 import static io.pillopl.library.catalogue.BookType.Restricted
@@ -42,5 +45,24 @@ class CatalogueDatabaseIT extends Specification {
             noExceptionThrown()
     }
 
+    def 'should save books and book instances in batches'() {
+        given:
+            Book goos = new Book("0321503627", "Steve Freeman", "Growing Object-Oriented Software")
+            Book refactoring = new Book("0201485672", "Martin Fowler", "Refactoring")
+        when:
+            catalogueDatabase.saveNew(List.of(goos, refactoring))
+            catalogueDatabase.saveNewInstances(List.of(instanceOf(goos, Restricted), instanceOf(refactoring, Restricted)))
+        then:
+            catalogueDatabase.findBy(goos.bookIsbn).get() == goos
+            catalogueDatabase.findBy(refactoring.bookIsbn).get() == refactoring
+    }
+
+    def 'should tell which of the given isbns are in the catalogue'() {
+        given:
+            catalogueDatabase.saveNew(DDD)
+        expect:
+            catalogueDatabase.existing(HashSet.of(DDD_ISBN_10, NON_PRESENT_ISBN)) == HashSet.of(DDD_ISBN_10)
+    }
+
 
 }
@@ -0,0 +1,196 @@
+package io.pillopl.library.common.events.publisher
+
+import groovy.transform.EqualsAndHashCode
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.pillopl.library.commons.events.DomainEvent
+import io.pillopl.library.commons.events.DomainEvents
+import io.pillopl.library.commons.events.publisher.JdbcEventsStorage
+import io.pillopl.library.commons.events.publisher.StoreAndForwardDomainEventPublisher
+import io.pillopl.library.lending.LendingTestContext
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.jdbc.core.JdbcTemplate
+import spock.lang.Specification
+
+import javax.sql.DataSource
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+
+@SpringBootTest(classes = LendingTestContext.class)
+class JdbcEventsStorageIT extends Specification {
+
+    @Autowired
+    DataSource dataSource
+
+    JdbcTemplate jdbcTemplate
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+
+    UUID aggregate = UUID.randomUUID()
+    UUID otherAggregate = UUID.randomUUID()
+
+    def setup() {
+        jdbcTemplate = new JdbcTemplate(dataSource)
+        jdbcTemplate.update("UPDATE domain_event_outbox SET published_at = CURRENT_TIMESTAMP() WHERE published_at IS NULL")
+    }
+
+    def 'should forward stored events in order and not return them once published'() {
+        given:
+            JdbcEventsStorage storage = storage(10, Duration.ofSeconds(30))
+        and:
+            storage.save(io.vavr.collection.List.of(event(aggregate, 1), event(otherAggregate, 1), event(aggregate, 2)))
+        when:
+            io.vavr.collection.List<DomainEvent> page = storage.toPublish()
+        then:
+            page.map { it.aggregateId } == io.vavr.collection.List.of(aggregate, otherAggregate, aggregate)
+        when:
+            storage.published(page)
+        then:
+            storage.toPublish().isEmpty()
+    }
+
+    def 'should not hand out events leased to another publisher until the lease expires'() {
+        given:
+            JdbcEventsStorage first = storage(10, Duration.ofMillis(500))
+            JdbcEventsStorage second = storage(10, Duration.ofMillis(500))
+        and:
+            first.save(event(aggregate, 1))
+        when:
+            io.vavr.collection.List<DomainEvent> leased = first.toPublish()
+        then:
+            leased.size() == 1
+            second.toPublish().isEmpty()
+        when:
+            sleep(600)
+        then:
+            second.toPublish() == leased
+    }
+
+    def 'should not lease later events of an aggregate while an earlier one is leased elsewhere'() {
+        given:
+            JdbcEventsStorage first = storage(1, Duration.ofSeconds(30))
+            JdbcEventsStorage second = storage(10, Duration.ofSeconds(30))
+        and:
+            first.save(event(aggregate, 1))
+            first.save(event(aggregate, 2))
+            first.save(event(otherAggregate, 1))
+        when:
+            io.vavr.collection.List<DomainEvent> leasedByFirst = first.toPublish()
+            io.vavr.collection.List<DomainEvent> leasedBySecond = second.toPublish()
+        then:
+            leasedByFirst.map { it.aggregateId } == io.vavr.collection.List.of(aggregate)
+            leasedBySecond.map { it.aggregateId } == io.vavr.collection.List.of(otherAggregate)
+    }
+
+    def 'should lease every event to one of concurrent claimers and keep events of an aggregate in order'() {
+        given:
+            List<UUID> aggregates = (1..10).collect { UUID.randomUUID() }
+            storage(10, Duration.ofSeconds(30)).save(io.vavr.collection.List.ofAll(
+                    (1..10).collectMany { sequence -> aggregates.collect { event(it, sequence) } }))
+        and:
+            java.util.List<DomainEvent> forwarded = new CopyOnWriteArrayList<>()
+            CountDownLatch start = new CountDownLatch(1)
+            ExecutorService claimers = Executors.newFixedThreadPool(4)
+        when:
+            List<Future> claiming = (1..4).collect {
+                JdbcEventsStorage claimer = storage(3, Duration.ofSeconds(30))
+                claimers.submit {
+                    start.await()
+                    long deadline = System.currentTimeMillis() + 10_000
+                    while (forwarded.size() < 100 && System.currentTimeMillis() < deadline) {
+                        io.vavr.collection.List<DomainEvent> page = claimer.toPublish()
+                        page.forEach { forwarded.add(it) }
+                        claimer.published(page)
+                    }
+                }
+            }
+            start.countDown()
+            claiming*.get()
+        then:
+            forwarded.size() == 100
+            forwarded*.eventId.toSet().size() == 100
+            aggregates.every { id -> forwarded.findAll { it.aggregateId == id }*.sequence == (1..10).toList() }
+        cleanup:
+            claimers.shutdownNow()
+    }
+
+    def 'should report backlog of unpublished events'() {
+        given:
+            JdbcEventsStorage storage = storage(10, Duration.ofSeconds(30))
+        when:
+            storage.save(io.vavr.collection.List.of(event(aggregate, 1), event(aggregate, 2)))
+        then:
+            meterRegistry.get("domain_events_outbox_backlog").gauge().value() == 2
+        when:
+            storage.published(storage.toPublish())
+        then:
+            meterRegistry.get("domain_events_outbox_backlog").gauge().value() == 0
+            meterRegistry.get("domain_events_outbox_lag").gauge().value() == 0
+    }
+
+    def 'should forward events of each aggregate in order across forwarders'() {
+        given:
+            java.util.List<DomainEvent> forwarded = new CopyOnWriteArrayList<>()
+            StoreAndForwardDomainEventPublisher publisher = new StoreAndForwardDomainEventPublisher(
+                    { DomainEvent event -> forwarded.add(event) } as DomainEvents, storage(5, Duration.ofSeconds(30)), 4)
+        and:
+            List<UUID> aggregates = (1..8).collect { UUID.randomUUID() }
+            (1..5).each { sequence -> aggregates.each { publisher.publish(event(it, sequence)) } }
+        when:
+            publisher.publishAllPeriodically()
+        then:
+            forwarded.size() == 40
+            aggregates.every { id -> forwarded.findAll { it.aggregateId == id }*.sequence == [1, 2, 3, 4, 5] }
+        cleanup:
+            publisher.close()
+    }
+
+    def 'should hold back events of an aggregate that failed to be forwarded'() {
+        given:
+            java.util.List<DomainEvent> forwarded = new CopyOnWriteArrayList<>()
+            DomainEvents failingForAggregate = { DomainEvent event ->
+                if (event.aggregateId == aggregate) {
+                    throw new IllegalStateException("listener failed")
+                }
+                forwarded.add(event)
+            } as DomainEvents
+            StoreAndForwardDomainEventPublisher publisher = new StoreAndForwardDomainEventPublisher(
+                    failingForAggregate, storage(10, Duration.ofMillis(100)), 2)
+        and:
+            publisher.publish(io.vavr.collection.List.of(event(aggregate, 1), event(aggregate, 2), event(otherAggregate, 1)))
+        when:
+            publisher.publishAllPeriodically()
+        then:
+            forwarded*.aggregateId == [otherAggregate]
+            unpublishedEventsOf(aggregate) == 2
+        cleanup:
+            publisher.close()
+    }
+
+    JdbcEventsStorage storage(int pageSize, Duration claimTimeout) {
+        return new JdbcEventsStorage(jdbcTemplate, pageSize, claimTimeout, meterRegistry)
+    }
+
+    int unpublishedEventsOf(UUID aggregateId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM domain_event_outbox WHERE aggregate_id = ? AND published_at IS NULL",
+                Integer, aggregateId)
+    }
+
+    static SequencedEvent event(UUID aggregateId, int sequence) {
+        return new SequencedEvent(aggregateId: aggregateId, sequence: sequence)
+    }
+}
+
+@EqualsAndHashCode
+class SequencedEvent implements DomainEvent {
+
+    UUID eventId = UUID.randomUUID()
+    UUID aggregateId
+    Instant when = Instant.now()
+    int sequence
+}
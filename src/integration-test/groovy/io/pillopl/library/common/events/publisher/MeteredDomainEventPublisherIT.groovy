@@ -31,6 +31,19 @@ class MeteredDomainEventPublisherIT extends Specification {
             countedEvents("domain_events", "name", "TestEvent") == 2.0
     }
 
+    def "should time publishing per event type"() {
+        given:
+            long timedBefore = publishTimer("TestEvent").count()
+        when:
+            publisher.publish(new TestEvent())
+        then:
+            publishTimer("TestEvent").count() == timedBefore + 1
+    }
+
+    def publishTimer(String eventName) {
+        meterRegistry.get("domain_events_publish").tag("name", eventName).timer()
+    }
+
     def countedEvents(String metricName, String key, String tag) {
         meterRegistry.counter(metricName, key, tag).count()
     }
@@ -0,0 +1,63 @@
+package io.pillopl.library.common.jdbc
+
+import com.zaxxer.hikari.HikariDataSource
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.pillopl.library.commons.jdbc.DataSources
+import org.springframework.jdbc.core.JdbcTemplate
+import spock.lang.Specification
+
+import javax.sql.DataSource
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Duration
+
+class DataSourcesIT extends Specification {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+
+    def 'should create a pooled database with its schema and publish pool metrics'() {
+        given:
+            DataSources dataSources = new DataSources(settings(DataSources.EMBEDDED, true), meterRegistry)
+        when:
+            DataSource database = dataSources.create("catalogue", "create_catalogue_book.sql")
+        then:
+            database instanceof HikariDataSource
+            countOfBooksIn(database) == 0
+            meterRegistry.get("hikaricp.connections.max").tag("pool", "catalogue").gauge().value() == 2
+            meterRegistry.get("hikaricp.connections.acquire").tag("pool", "catalogue").timer().count() > 0
+        cleanup:
+            (database as HikariDataSource)?.close()
+    }
+
+    def 'should keep a file database and its schema across restarts'() {
+        given:
+            Path directory = Files.createTempDirectory("library")
+            DataSources dataSources = new DataSources(settings("jdbc:h2:file:" + directory.toAbsolutePath() + "/{context}", true), meterRegistry)
+        and:
+            HikariDataSource first = dataSources.create("catalogue", "create_catalogue_book.sql") as HikariDataSource
+            new JdbcTemplate(first).update("INSERT INTO catalogue_book (id, isbn, title, author) VALUES (catalogue_book_seq.nextval, '0321125215', 'DDD', 'Eric Evans')")
+            first.close()
+        when:
+            HikariDataSource second = dataSources.create("catalogue", "create_catalogue_book.sql") as HikariDataSource
+        then:
+            countOfBooksIn(second) == 1
+        cleanup:
+            second?.close()
+    }
+
+    def 'should create an unpooled embedded database by default'() {
+        when:
+            DataSource database = new DataSources(settings(DataSources.EMBEDDED, false), meterRegistry).create("catalogue", "create_catalogue_book.sql")
+        then:
+            !(database instanceof HikariDataSource)
+            countOfBooksIn(database) == 0
+    }
+
+    int countOfBooksIn(DataSource database) {
+        return new JdbcTemplate(database).queryForObject("SELECT COUNT(*) FROM catalogue_book", Integer)
+    }
+
+    DataSources.Settings settings(String url, boolean pooled) {
+        return new DataSources.Settings(url, "sa", "", 16, pooled, 2, 1, Duration.ofSeconds(2), Duration.ofMinutes(10), Duration.ofMinutes(30))
+    }
+}
@@ -1,11 +1,13 @@
 package io.pillopl.library.lending.book.infrastructure
 
 import io.pillopl.library.catalogue.BookId
+import io.pillopl.library.commons.aggregates.Version
 import io.pillopl.library.lending.LendingTestContext
 import io.pillopl.library.lending.book.model.AvailableBook
 import io.pillopl.library.lending.book.model.Book
 import io.pillopl.library.lending.librarybranch.model.LibraryBranchId
 import io.pillopl.library.lending.patron.model.PatronId
+import io.vavr.collection.List
 import io.vavr.control.Option
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.context.SpringBootTest
@@ -35,6 +37,28 @@ class BookDatabaseRepositoryIT extends Specification {
             bookIsPersistedAs(AvailableBook.class)
     }
 
+    def 'should insert books not persisted yet in batches'() {
+        given:
+            List<Book> books = List.fill(BookDatabaseRepository.BATCH_SIZE + 1, { circulatingAvailableBookAt(anyBookId(), libraryBranchId) as Book })
+        when:
+            bookEntityRepository.saveAll(books)
+        then:
+            books.forAll { bookEntityRepository.findBy(it.bookId()).isDefined() }
+    }
+
+    def 'should update books already persisted when saving them with new ones'() {
+        given:
+            AvailableBook persisted = circulatingAvailableBookAt(bookId, libraryBranchId)
+            bookEntityRepository.save(persisted)
+        and:
+            AvailableBook newOne = circulatingAvailableBookAt(anyBookId(), libraryBranchId)
+        when:
+            bookEntityRepository.saveAll(List.of(loadPersistedBook(bookId), newOne))
+        then:
+            loadPersistedBook(bookId).version == new Version(1)
+            loadPersistedBook(newOne.bookId).version == Version.zero()
+    }
+
     void bookIsPersistedAs(Class<?> clz) {
         Book book = loadPersistedBook(bookId)
         assert book.class == clz
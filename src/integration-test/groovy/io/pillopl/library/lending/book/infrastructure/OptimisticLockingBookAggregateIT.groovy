@@ -49,6 +49,22 @@ class OptimisticLockingBookAggregateIT extends Specification {
             loadPersistedBook(bookId).version == new Version(1)
     }
 
+    def 'saving the same book version twice should fail for the second writer'() {
+        given:
+            AvailableBook availableBook = circulatingAvailableBookAt(bookId, libraryBranchId)
+        and:
+            bookEntityRepository.save(availableBook)
+        and:
+            AvailableBook loaded = loadPersistedBook(bookId) as AvailableBook
+        when:
+            bookEntityRepository.save(loaded.handle(placedOnHoldBy(anyPatronId())))
+        and:
+            bookEntityRepository.save(loaded.handle(placedOnHoldBy(anyPatronId())))
+        then:
+            thrown(AggregateRootIsStale)
+            loadPersistedBook(bookId).version == new Version(1)
+    }
+
     void someoneModifiedBookInTheMeantime(AvailableBook availableBook) {
         bookEntityRepository.save(availableBook.handle(placedOnHoldBy(anyPatronId())))
     }
@@ -1,8 +1,11 @@
 package io.pillopl.library.lending.dailysheet.infrastructure
 
 import io.pillopl.library.catalogue.BookId
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import io.pillopl.library.catalogue.BookType
+import io.pillopl.library.commons.jdbc.BulkheadDataSource
 import io.pillopl.library.lending.LendingTestContext
+import io.pillopl.library.lending.dailysheet.model.SheetShard
 import io.pillopl.library.lending.librarybranch.model.LibraryBranchId
 import io.pillopl.library.lending.patron.model.PatronEvent
 import io.pillopl.library.lending.patron.model.PatronId
@@ -108,6 +111,74 @@ class FindingHoldsInDailySheetDatabaseIT extends Specification {
             readModel.queryForHoldsToExpireSheet().count() == currentNoOfExpiredHolds
     }
 
+    def 'shards should split holds to expire by patron without overlap'() {
+        given:
+            List<PatronId> patrons = (1..20).collect { anyPatronId() }
+        when:
+            patrons.each { readModel.handle(placedOnHoldBy(it, aCloseEndedHoldTillYesterday())) }
+        then:
+            List<List<UUID>> shards = (0..3).collect { shard ->
+                expiringPatronsIn(SheetShard.of(shard, 4)).findAll { it in patrons*.patronId } }
+            shards.flatten().sort() == patrons*.patronId.sort()
+    }
+
+    def 'shard resumed after a patron should skip holds of patrons up to that one'() {
+        given:
+            List<PatronId> patrons = (1..10).collect { anyPatronId() }
+            patrons.each { readModel.handle(placedOnHoldBy(it, aCloseEndedHoldTillYesterday())) }
+        and:
+            List<UUID> allInShard = expiringPatronsIn(SheetShard.of(0, 1))
+            UUID resumeAfter = allInShard[allInShard.size().intdiv(2)]
+        when:
+            List<UUID> resumed = expiringPatronsIn(SheetShard.of(0, 1).resumedAfter(new PatronId(resumeAfter)))
+        then:
+            resumed == allInShard.drop(allInShard.lastIndexOf(resumeAfter) + 1)
+    }
+
+    def 'should read holds of a sheet longer than a page once each, keeping holds of a patron together'() {
+        given:
+            List<PatronId> patrons = (1..3).collect { anyPatronId() }
+            patrons.each { patron -> 250.times { readModel.handle(placedOnHoldBy(patron, aCloseEndedHoldTillYesterday())) } }
+        when:
+            List<PatronEvent.BookHoldExpired> expired = readModel.queryForHoldsToExpireSheet().toStreamOfEvents()
+                    .filter { it.patronId in patrons*.patronId }
+                    .toJavaList()
+        then:
+            expired.size() == 750
+            expired.collect { [it.patronId, it.bookId] }.unique().size() == 750
+            expired*.patronId.unique().size() == 3
+            expired*.patronId == expired*.patronId.sort(false)
+    }
+
+    def 'should not hold a connection while holds of the sheet are processed'() {
+        given:
+            DataSource singleConnection = new BulkheadDataSource(dataSource, 1, Duration.ofMillis(100), new SimpleMeterRegistry())
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(singleConnection)
+            SheetsReadModel readModelOnSingleConnection = new SheetsReadModel(jdbcTemplate, fixed(TIME_OF_EXPIRE_CHECK, systemDefault()))
+        and:
+            readModel.handle(placedOnHold(aCloseEndedHoldTillYesterday()))
+        when:
+            readModelOnSingleConnection.queryForHoldsToExpireSheet().forEachBatchOfPatrons(10, { batch ->
+                batch.each { readModelOnSingleConnection.handle(it) }
+            })
+        then:
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM holds_sheet h WHERE h.hold_by_patron_id = ? AND h.status = 'EXPIRED'", Integer, patronId.patronId) == 1
+    }
+
+    List<UUID> expiringPatronsIn(SheetShard shard) {
+        return readModel.queryForHoldsToExpireSheet(shard).toStreamOfEvents().map { it.patronId }.toJavaList()
+    }
+
+    PatronEvent.BookPlacedOnHold placedOnHoldBy(PatronId patron, Instant till) {
+        return new PatronEvent.BookPlacedOnHold(
+                now(),
+                patron.getPatronId(),
+                anyBookId().getBookId(),
+                type,
+                libraryBranchId.getLibraryBranchId(),
+                TIME_OF_EXPIRE_CHECK.minusSeconds(60000),
+                till)
+    }
 
     Instant aCloseEndedHoldTillTomorrow() {
         return TIME_OF_EXPIRE_CHECK.plus(Duration.ofDays(1))
@@ -0,0 +1,161 @@
+package io.pillopl.library.lending.dailysheet.infrastructure
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.pillopl.library.catalogue.BookId
+import io.pillopl.library.catalogue.BookType
+import io.pillopl.library.lending.LendingTestContext
+import io.pillopl.library.lending.librarybranch.model.LibraryBranchId
+import io.pillopl.library.lending.patron.model.PatronEvent
+import io.pillopl.library.lending.patron.model.PatronId
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.jdbc.core.JdbcTemplate
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import javax.sql.DataSource
+import java.time.Duration
+import java.time.Instant
+
+import static io.pillopl.library.catalogue.BookType.Restricted
+import static io.pillopl.library.lending.book.model.BookFixture.anyBookId
+import static io.pillopl.library.lending.librarybranch.model.LibraryBranchFixture.anyBranch
+import static io.pillopl.library.lending.patron.model.PatronFixture.anyPatronId
+import static java.time.Clock.fixed
+import static java.time.Instant.now
+import static java.time.ZoneId.systemDefault
+
+@SpringBootTest(classes = LendingTestContext.class)
+class WriteBehindDailySheetDatabaseIT extends Specification {
+
+    PatronId patronId = anyPatronId()
+    LibraryBranchId libraryBranchId = anyBranch()
+    BookId bookId = anyBookId()
+    BookType type = Restricted
+
+    static final Instant TIME_OF_EXPIRE_CHECK = now()
+
+    @Autowired
+    DataSource dataSource
+
+    JdbcTemplate jdbcTemplate
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+    WriteBehindSheetsReadModel readModel
+
+    PollingConditions pollingConditions = new PollingConditions(timeout: 5)
+
+    def setup() {
+        jdbcTemplate = new JdbcTemplate(dataSource)
+        readModel = new WriteBehindSheetsReadModel(
+                new SheetsReadModel(jdbcTemplate, fixed(TIME_OF_EXPIRE_CHECK, systemDefault())),
+                100, 50, Duration.ofMillis(100), meterRegistry)
+    }
+
+    def cleanup() {
+        readModel.close()
+    }
+
+    def 'should eventually project holds to expire'() {
+        given:
+            int currentNoOfExpiredHolds = readModel.queryForHoldsToExpireSheet().count()
+        when:
+            readModel.handle(placedOnHold(TIME_OF_EXPIRE_CHECK.minus(Duration.ofDays(1))))
+        then:
+            pollingConditions.eventually {
+                assert readModel.queryForHoldsToExpireSheet().count() == currentNoOfExpiredHolds + 1
+            }
+    }
+
+    def 'should coalesce hold and its cancellation into a single canceled row'() {
+        when:
+            readModel.handle(placedOnHold(TIME_OF_EXPIRE_CHECK.minus(Duration.ofDays(1))))
+            readModel.handle(holdCanceled())
+        and:
+            readModel.close()
+        then:
+            holdStatuses() == ['CANCELED']
+    }
+
+    def 'should project checkout and return of a book placed on hold in one window'() {
+        when:
+            readModel.handle(placedOnHold(TIME_OF_EXPIRE_CHECK.plus(Duration.ofDays(1))))
+            readModel.handle(bookCheckedOut())
+            readModel.handle(bookReturned())
+        and:
+            readModel.close()
+        then:
+            holdStatuses() == ['CHECKEDOUT']
+            checkoutStatuses() == ['RETURNED']
+    }
+
+    def 'handling placed on hold should be idempotent'() {
+        given:
+            PatronEvent.BookPlacedOnHold event = placedOnHold(TIME_OF_EXPIRE_CHECK.minus(Duration.ofDays(1)))
+        when:
+            2.times { readModel.handle(event) }
+        and:
+            readModel.close()
+        then:
+            holdStatuses() == ['ACTIVE']
+    }
+
+    def 'should drain the queue and report no lag after close'() {
+        when:
+            10.times { readModel.handle(placedOnHold(null)) }
+        and:
+            readModel.close()
+        then:
+            meterRegistry.get("daily_sheet_projection_queue_depth").gauge().value() == 0
+            meterRegistry.get("daily_sheet_projection_lag").gauge().value() == 0
+    }
+
+    List<String> holdStatuses() {
+        return jdbcTemplate.queryForList(
+                "SELECT status FROM holds_sheet WHERE book_id = ? AND hold_by_patron_id = ?",
+                String, bookId.getBookId(), patronId.getPatronId())
+    }
+
+    List<String> checkoutStatuses() {
+        return jdbcTemplate.queryForList(
+                "SELECT status FROM checkouts_sheet WHERE book_id = ? AND checked_out_by_patron_id = ?",
+                String, bookId.getBookId(), patronId.getPatronId())
+    }
+
+    PatronEvent.BookPlacedOnHold placedOnHold(Instant till) {
+        return new PatronEvent.BookPlacedOnHold(
+                now(),
+                patronId.getPatronId(),
+                bookId.getBookId(),
+                type,
+                libraryBranchId.getLibraryBranchId(),
+                TIME_OF_EXPIRE_CHECK.minusSeconds(60000),
+                till)
+    }
+
+    PatronEvent.BookHoldCanceled holdCanceled() {
+        return new PatronEvent.BookHoldCanceled(
+                now(),
+                patronId.getPatronId(),
+                bookId.getBookId(),
+                libraryBranchId.getLibraryBranchId())
+    }
+
+    PatronEvent.BookCheckedOut bookCheckedOut() {
+        return new PatronEvent.BookCheckedOut(
+                now(),
+                patronId.getPatronId(),
+                bookId.getBookId(),
+                type,
+                libraryBranchId.getLibraryBranchId(),
+                now())
+    }
+
+    PatronEvent.BookReturned bookReturned() {
+        return new PatronEvent.BookReturned(
+                now(),
+                patronId.getPatronId(),
+                bookId.getBookId(),
+                type,
+                libraryBranchId.getLibraryBranchId())
+    }
+}
@@ -0,0 +1,147 @@
+package io.pillopl.library.lending.patron.application.hold
+
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.MeterRegistry
+import io.pillopl.library.catalogue.BookId
+import io.pillopl.library.commons.aggregates.AggregateRootIsStale
+import io.pillopl.library.commons.commands.Result
+import io.pillopl.library.lending.LendingTestContext
+import io.pillopl.library.lending.book.model.AvailableBook
+import io.pillopl.library.lending.book.model.BookFixture
+import io.pillopl.library.lending.book.model.BookOnHold
+import io.pillopl.library.lending.book.model.BookRepository
+import io.pillopl.library.lending.patron.model.PatronId
+import io.pillopl.library.lending.patron.model.Patrons
+import io.vavr.collection.List
+import io.vavr.collection.Map
+import io.vavr.control.Try
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.context.ApplicationListener
+import org.springframework.context.PayloadApplicationEvent
+import org.springframework.context.event.ApplicationEventMulticaster
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.UnexpectedRollbackException
+import org.springframework.transaction.support.TransactionTemplate
+import spock.lang.Specification
+
+import static io.pillopl.library.commons.commands.Result.Success
+import static io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHold
+import static io.pillopl.library.lending.patron.model.PatronEvent.PatronCreated
+import static io.pillopl.library.lending.patron.model.PatronFixture.anyPatronId
+import static io.pillopl.library.lending.patron.model.PatronType.Regular
+
+@SpringBootTest(classes = LendingTestContext.class)
+class PlacingOnHoldRetriesIT extends Specification {
+
+    PatronId patronId = anyPatronId()
+    AvailableBook book = BookFixture.circulatingBook()
+
+    @Autowired
+    PlacingOnHold placingOnHold
+
+    @Autowired
+    Patrons patrons
+
+    @Autowired
+    BookRepository bookRepository
+
+    @Autowired
+    ApplicationEventMulticaster eventMulticaster
+
+    @Autowired
+    MeterRegistry meterRegistry
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    @Autowired
+    PlatformTransactionManager transactionManager
+
+    int staleBookSaves
+
+    ApplicationListener bookGoingStale = { event ->
+        if (event instanceof PayloadApplicationEvent && event.payload instanceof BookPlacedOnHold
+                && event.payload.bookId == book.bookId.bookId && staleBookSaves-- > 0) {
+            throw new AggregateRootIsStale("Book changed after the patron was saved")
+        }
+    } as ApplicationListener
+
+    def setup() {
+        bookRepository.save(book)
+        patrons.publish(PatronCreated.now(patronId, Regular))
+        eventMulticaster.addApplicationListener(bookGoingStale)
+    }
+
+    def cleanup() {
+        eventMulticaster.removeApplicationListener(bookGoingStale)
+    }
+
+    def 'should place a hold once when the book went stale after the patron was saved'() {
+        given:
+            staleBookSaves = 1
+            double retriesBefore = retries("place-on-hold")
+        when:
+            Try<Result> result = placingOnHold.placeOnHold(placeOnHold())
+        then:
+            result.get() == Success
+            retries("place-on-hold") == retriesBefore + 1
+        and:
+            holdsOfPatron() == 1
+            patrons.findBy(patronId).get().numberOfHolds() == 1
+            bookRepository.findBy(book.bookId).get() instanceof BookOnHold
+    }
+
+    def 'should leave no hold of the patron when the book stays stale'() {
+        given:
+            staleBookSaves = Integer.MAX_VALUE
+        when:
+            Try<Result> result = placingOnHold.placeOnHold(placeOnHold())
+        then:
+            result.getCause() instanceof AggregateRootIsStale
+        and:
+            holdsOfPatron() == 0
+            patrons.findBy(patronId).get().numberOfHolds() == 0
+            bookRepository.findBy(book.bookId).get() instanceof AvailableBook
+    }
+
+    def 'should report a hold placed in bulk once when the book went stale after the patron was saved'() {
+        given:
+            staleBookSaves = 1
+        when:
+            Try<Map<BookId, Result>> result = placingOnHold.placeOnHold(
+                    PlaceOnHoldInBulkCommand.closeEnded(patronId, book.libraryBranch, List.of(book.bookId), 3))
+        then:
+            result.get().get(book.bookId).get() == Success
+        and:
+            holdsOfPatron() == 1
+            bookRepository.findBy(book.bookId).get() instanceof BookOnHold
+    }
+
+    def 'should not place a hold again within a transaction of the caller'() {
+        given:
+            staleBookSaves = 1
+            double retriesBefore = retries("place-on-hold")
+        when:
+            new TransactionTemplate(transactionManager).execute { placingOnHold.placeOnHold(placeOnHold()) }
+        then:
+            thrown(UnexpectedRollbackException)
+            retries("place-on-hold") == retriesBefore
+        and:
+            holdsOfPatron() == 0
+    }
+
+    PlaceOnHoldCommand placeOnHold() {
+        return PlaceOnHoldCommand.closeEnded(patronId, book.libraryBranch, book.bookId, 3)
+    }
+
+    int holdsOfPatron() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM hold_database_entity h WHERE h.patron_id = ?", Integer, patronId.patronId)
+    }
+
+    double retries(String command) {
+        Counter counter = meterRegistry.find("command_retries").tag("command", command).counter()
+        return counter == null ? 0 : counter.count()
+    }
+}
@@ -0,0 +1,137 @@
+package io.pillopl.library.lending.patron.infrastructure
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.pillopl.library.commons.commands.BatchResult
+import io.pillopl.library.lending.LendingTestContext
+import io.pillopl.library.lending.dailysheet.model.DailySheet
+import io.pillopl.library.lending.dailysheet.model.ExpiredHold
+import io.pillopl.library.lending.dailysheet.model.HoldsToExpireSheet
+import io.pillopl.library.lending.dailysheet.model.SheetShard
+import io.pillopl.library.lending.patron.application.checkout.RegisteringOverdueCheckout
+import io.pillopl.library.lending.patron.application.hold.ExpiringHolds
+import io.pillopl.library.lending.patron.model.PatronId
+import io.pillopl.library.lending.patron.model.Patrons
+import io.vavr.control.Option
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.jdbc.core.JdbcTemplate
+import spock.lang.Specification
+
+import javax.sql.DataSource
+import java.time.Clock
+import java.time.LocalDate
+import java.time.ZoneOffset
+
+import static io.pillopl.library.lending.book.model.BookFixture.anyBookId
+import static io.pillopl.library.lending.librarybranch.model.LibraryBranchFixture.anyBranch
+import static io.pillopl.library.lending.patron.infrastructure.DailySheetJobs.EXPIRING_HOLDS
+import static io.pillopl.library.lending.patron.model.PatronFixture.anyPatronId
+
+@SpringBootTest(classes = LendingTestContext.class)
+class DailySheetJobsIT extends Specification {
+
+    @Autowired
+    DataSource dataSource
+
+    DailySheetJobCheckpoints checkpoints
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+
+    String job = "job-" + UUID.randomUUID()
+    PatronId patron = anyPatronId()
+    LocalDate today = LocalDate.of(2019, 10, 1)
+    LocalDate tomorrow = today.plusDays(1)
+
+    def setup() {
+        checkpoints = new DailySheetJobCheckpoints(new JdbcTemplate(dataSource))
+    }
+
+    def 'should resume a shard left running after its last checkpointed patron'() {
+        given:
+            checkpoints.start(job, today, 0, 2)
+        and:
+            checkpoints.processedUpTo(job, today, 0, 2, patron)
+        expect:
+            checkpoints.start(job, today, 0, 2) == Option.of(patron)
+    }
+
+    def 'should start over a completed shard'() {
+        given:
+            checkpoints.start(job, today, 0, 2)
+            checkpoints.processedUpTo(job, today, 0, 2, patron)
+        and:
+            checkpoints.completed(job, today, 0, 2)
+        expect:
+            checkpoints.start(job, today, 0, 2).isEmpty()
+    }
+
+    def 'should start over when the number of shards changed'() {
+        given:
+            checkpoints.start(job, today, 0, 2)
+            checkpoints.processedUpTo(job, today, 0, 2, patron)
+        expect:
+            checkpoints.start(job, today, 0, 3).isEmpty()
+    }
+
+    def 'should start over a shard left running by a run of an earlier date'() {
+        given:
+            checkpoints.start(job, today, 0, 2)
+            checkpoints.processedUpTo(job, today, 0, 2, patron)
+        expect:
+            checkpoints.start(job, tomorrow, 0, 2).isEmpty()
+        and:
+            checkpoints.start(job, today, 0, 2).isEmpty()
+    }
+
+    def 'should expire holds of every shard and resume an interrupted one'() {
+        given:
+            DailySheet dailySheet = Mock()
+            Patrons patrons = Stub()
+            DailySheetJobs jobs = new DailySheetJobs(
+                    new ExpiringHolds(dailySheet, patrons),
+                    new RegisteringOverdueCheckout(dailySheet, patrons),
+                    checkpoints, 4, 2, 1, meterRegistry, Clock.fixed(today.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC))
+        and:
+            new JdbcTemplate(dataSource).update("DELETE FROM daily_sheet_job_checkpoint WHERE job = ?", EXPIRING_HOLDS)
+            checkpoints.start(EXPIRING_HOLDS, today, 3, 4)
+            checkpoints.processedUpTo(EXPIRING_HOLDS, today, 3, 4, patron)
+        when:
+            BatchResult result = jobs.expireHolds()
+        then:
+            3 * dailySheet.queryForHoldsToExpireSheet({ SheetShard shard -> shard.resumeAfter.isEmpty() }) >> holdOfAnyPatron()
+            1 * dailySheet.queryForHoldsToExpireSheet({ SheetShard shard -> shard.index == 3 && shard.resumeAfter == Option.of(patron) }) >> holdOfAnyPatron()
+            result == BatchResult.FullSuccess
+        and:
+            meterRegistry.get("daily_sheet_job_patrons").tag("job", EXPIRING_HOLDS).counter().count() == 4
+            meterRegistry.get("daily_sheet_job").tag("job", EXPIRING_HOLDS).timer().count() == 1
+        and:
+            (0..3).every { checkpoints.start(EXPIRING_HOLDS, today, it, 4).isEmpty() }
+        cleanup:
+            jobs.close()
+    }
+
+    def 'should not resume a shard interrupted by the run of the previous day'() {
+        given:
+            DailySheet dailySheet = Mock()
+            Patrons patrons = Stub()
+            DailySheetJobs jobs = new DailySheetJobs(
+                    new ExpiringHolds(dailySheet, patrons),
+                    new RegisteringOverdueCheckout(dailySheet, patrons),
+                    checkpoints, 4, 2, 1, meterRegistry, Clock.fixed(tomorrow.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC))
+        and:
+            new JdbcTemplate(dataSource).update("DELETE FROM daily_sheet_job_checkpoint WHERE job = ?", EXPIRING_HOLDS)
+            checkpoints.start(EXPIRING_HOLDS, today, 3, 4)
+            checkpoints.processedUpTo(EXPIRING_HOLDS, today, 3, 4, patron)
+        when:
+            BatchResult result = jobs.expireHolds()
+        then:
+            4 * dailySheet.queryForHoldsToExpireSheet({ SheetShard shard -> shard.resumeAfter.isEmpty() }) >> holdOfAnyPatron()
+            0 * dailySheet.queryForHoldsToExpireSheet(_)
+            result == BatchResult.FullSuccess
+        cleanup:
+            jobs.close()
+    }
+
+    HoldsToExpireSheet holdOfAnyPatron() {
+        return new HoldsToExpireSheet(io.vavr.collection.List.of(new ExpiredHold(anyBookId(), anyPatronId(), anyBranch())))
+    }
+}
@@ -0,0 +1,121 @@
+package io.pillopl.library.lending.patron.infrastructure
+
+import io.pillopl.library.catalogue.BookId
+import io.pillopl.library.commons.events.DomainEvents
+import io.pillopl.library.lending.LendingTestContext
+import io.pillopl.library.lending.librarybranch.model.LibraryBranchId
+import io.pillopl.library.lending.patron.model.HoldDuration
+import io.pillopl.library.lending.patron.model.Patron
+import io.pillopl.library.lending.patron.model.PatronFactory
+import io.pillopl.library.lending.patron.model.PatronId
+import io.vavr.collection.List
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.jdbc.core.JdbcTemplate
+import spock.lang.Specification
+
+import javax.sql.DataSource
+
+import static io.pillopl.library.catalogue.BookType.Circulating
+import static io.pillopl.library.lending.book.model.BookFixture.anyBookId
+import static io.pillopl.library.lending.librarybranch.model.LibraryBranchFixture.anyBranch
+import static io.pillopl.library.lending.patron.model.PatronEvent.BookHoldExpired
+import static io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHold.bookPlacedOnHoldNow
+import static io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHoldEvents
+import static io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHoldEvents.events
+import static io.pillopl.library.lending.patron.model.PatronEvent.PatronCreated
+import static io.pillopl.library.lending.patron.model.PatronFixture.anyPatronId
+import static io.pillopl.library.lending.patron.model.PatronFixture.regularPatron
+import static io.pillopl.library.lending.patron.model.PatronType.Regular
+
+@SpringBootTest(classes = LendingTestContext.class)
+class EventSourcedPatronsIT extends Specification {
+
+    static final int SNAPSHOT_EVERY = 3
+
+    PatronId patronId = anyPatronId()
+    LibraryBranchId libraryBranchId = anyBranch()
+
+    @Autowired
+    DataSource dataSource
+
+    JdbcTemplate jdbcTemplate
+    EventSourcedPatrons patrons
+
+    def setup() {
+        jdbcTemplate = new JdbcTemplate(dataSource)
+        patrons = new EventSourcedPatrons(
+                jdbcTemplate,
+                new DomainModelMapper(new PatronFactory()),
+                Stub(DomainEvents),
+                SNAPSHOT_EVERY)
+    }
+
+    def 'patron should be rebuilt from its events'() {
+        when:
+            patrons.publish(PatronCreated.now(patronId, Regular))
+        then:
+            loadPersistedPatron().numberOfHolds() == 0
+        when:
+            patrons.publish(placedOnHold())
+        then:
+            loadPersistedPatron().numberOfHolds() == 1
+            loadPersistedPatron() == regularPatron(patronId)
+    }
+
+    def 'patron should be rebuilt from latest snapshot and events appended after it'() {
+        given:
+            patrons.publish(PatronCreated.now(patronId, Regular))
+        when:
+            3.times { patrons.publish(placedOnHold()) }
+        then:
+            snapshotSequence() == 3
+            loadPersistedPatron().numberOfHolds() == 3
+    }
+
+    def 'expiring holds in batch should expire only holds of the patron and be idempotent'() {
+        given:
+            patrons.publish(PatronCreated.now(patronId, Regular))
+        and:
+            BookPlacedOnHoldEvents placedOnHold = placedOnHold()
+            patrons.publish(placedOnHold)
+        when:
+            patrons.publish(List.of(holdExpired(placedOnHold)))
+        then:
+            loadPersistedPatron().numberOfHolds() == 0
+            eventsInStream() == 3
+        when:
+            patrons.publish(List.of(holdExpired(placedOnHold)))
+        then:
+            loadPersistedPatron().numberOfHolds() == 0
+            eventsInStream() == 3
+    }
+
+    BookHoldExpired holdExpired(BookPlacedOnHoldEvents placedOnHold) {
+        return BookHoldExpired.now(
+                new BookId(placedOnHold.bookPlacedOnHold.bookId),
+                patronId,
+                new LibraryBranchId(placedOnHold.bookPlacedOnHold.libraryBranchId))
+    }
+
+    BookPlacedOnHoldEvents placedOnHold() {
+        return events(bookPlacedOnHoldNow(
+                anyBookId(),
+                Circulating,
+                libraryBranchId,
+                patronId,
+                HoldDuration.closeEnded(5)))
+    }
+
+    Patron loadPersistedPatron() {
+        return patrons.findBy(patronId).getOrElseThrow({ new IllegalStateException("should have been persisted") })
+    }
+
+    int snapshotSequence() {
+        return jdbcTemplate.queryForObject("SELECT sequence FROM patron_snapshot WHERE patron_id = ?", Integer, patronId.patronId)
+    }
+
+    int eventsInStream() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patron_event WHERE patron_id = ?", Integer, patronId.patronId)
+    }
+}
@@ -1,21 +1,35 @@
 package io.pillopl.library.lending.patron.infrastructure
 
-
+import io.micrometer.core.instrument.MeterRegistry
+import io.pillopl.library.catalogue.BookId
+import io.pillopl.library.commons.aggregates.AggregateRootIsStale
+import io.pillopl.library.commons.events.DomainEvents
 import io.pillopl.library.lending.LendingTestContext
 import io.pillopl.library.lending.librarybranch.model.LibraryBranchId
 import io.pillopl.library.lending.patron.model.HoldDuration
 import io.pillopl.library.lending.patron.model.Patron
+import io.pillopl.library.lending.patron.model.PatronFactory
 import io.pillopl.library.lending.patron.model.Patrons
 import io.pillopl.library.lending.patron.model.PatronId
 import io.pillopl.library.lending.patron.model.PatronType
+import io.pillopl.library.lending.patron.model.PlacingOnHoldPolicies
+import io.vavr.collection.List
 import io.vavr.control.Option
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.context.ApplicationListener
+import org.springframework.context.PayloadApplicationEvent
+import org.springframework.context.event.ApplicationEventMulticaster
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.TransactionTemplate
 import spock.lang.Specification
 
 import static io.pillopl.library.catalogue.BookType.Circulating
 import static io.pillopl.library.lending.book.model.BookFixture.anyBookId
 import static io.pillopl.library.lending.librarybranch.model.LibraryBranchFixture.anyBranch
+import static io.pillopl.library.lending.patron.model.PatronEvent.BookHoldExpired
+import static io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHold
 import static io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHold.bookPlacedOnHoldNow
 import static io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHoldEvents
 import static io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHoldEvents.events
@@ -34,6 +48,41 @@ class PatronDatabaseRepositoryIT extends Specification {
     @Autowired
     Patrons patronRepo
 
+    @Autowired
+    MeterRegistry meterRegistry
+
+    @Autowired
+    PatronEntityRepository patronEntityRepository
+
+    @Autowired
+    PatronDatabaseChanges patronDatabaseChanges
+
+    @Autowired
+    PatronsCache patronsCache
+
+    @Autowired
+    PlacingOnHoldPolicies placingOnHoldPolicies
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    @Autowired
+    PlatformTransactionManager transactionManager
+
+    @Autowired
+    ApplicationEventMulticaster eventMulticaster
+
+    ApplicationListener failingOnHoldOfPatron = { event ->
+        if (event instanceof PayloadApplicationEvent && event.payload instanceof BookPlacedOnHold
+                && event.payload.patronId == patronId.patronId) {
+            throw new IllegalStateException()
+        }
+    } as ApplicationListener
+
+    def cleanup() {
+        eventMulticaster.removeApplicationListener(failingOnHoldOfPatron)
+    }
+
     def 'persistence in real database should work'() {
         when:
             patronRepo.publish(patronCreated())
@@ -45,6 +94,115 @@ class PatronDatabaseRepositoryIT extends Specification {
             patronShouldBeFoundInDatabaseWithOneBookOnHold(patronId)
     }
 
+    def 'expiring holds in batch should be idempotent'() {
+        given:
+            patronRepo.publish(patronCreated())
+        and:
+            BookPlacedOnHoldEvents placedOnHold = placedOnHold()
+            patronRepo.publish(placedOnHold)
+        when:
+            patronRepo.publish(List.of(holdExpired(placedOnHold)))
+        then:
+            patronShouldBeFoundInDatabaseWithZeroBooksOnHold(patronId)
+        when:
+            patronRepo.publish(List.of(holdExpired(placedOnHold)))
+        then:
+            patronShouldBeFoundInDatabaseWithZeroBooksOnHold(patronId)
+    }
+
+    def 'repeated reads of a patron should be served from cache coherent with published events'() {
+        given:
+            patronRepo.publish(patronCreated())
+        and:
+            double hits = cacheHits()
+        when:
+            2.times { loadPersistedPatron(patronId) }
+        then:
+            cacheHits() == hits + 2
+        when:
+            patronRepo.publish(placedOnHold())
+        then:
+            patronShouldBeFoundInDatabaseWithOneBookOnHold(patronId)
+    }
+
+    def 'changes of a patron loaded before a concurrent change should be rejected'() {
+        given:
+            patronRepo.publish(patronCreated())
+        and:
+            PatronDatabaseEntity loadedByFirst = patronEntityRepository.findByPatronId(patronId.patronId)
+            PatronDatabaseEntity loadedBySecond = patronEntityRepository.findByPatronId(patronId.patronId)
+        when:
+            patronDatabaseChanges.persist(loadedByFirst, placedOnHold())
+        and:
+            patronDatabaseChanges.persist(loadedBySecond, placedOnHold())
+        then:
+            thrown(AggregateRootIsStale)
+            patronEntityRepository.findByPatronId(patronId.patronId).booksOnHold.size() == 1
+    }
+
+    def 'changes of a patron loaded before its holds expired in batch should be rejected'() {
+        given:
+            patronRepo.publish(patronCreated())
+        and:
+            BookPlacedOnHoldEvents placedOnHold = placedOnHold()
+            patronRepo.publish(placedOnHold)
+        and:
+            PatronDatabaseEntity loadedBeforeExpiry = patronEntityRepository.findByPatronId(patronId.patronId)
+        when:
+            patronRepo.publish(List.of(holdExpired(placedOnHold)))
+        and:
+            patronDatabaseChanges.persist(loadedBeforeExpiry, placedOnHold())
+        then:
+            thrown(AggregateRootIsStale)
+            patronShouldBeFoundInDatabaseWithZeroBooksOnHold(patronId)
+    }
+
+    def 'a patron changed in a transaction that failed to publish its events should not be served from cache'() {
+        given:
+            patronRepo.publish(patronCreated())
+        and:
+            Patrons failingToPublish = repositoryPublishingWith({ throw new IllegalStateException() } as DomainEvents)
+        when:
+            new TransactionTemplate(transactionManager).execute { failingToPublish.publish(placedOnHold()) }
+        then:
+            thrown(IllegalStateException)
+            patronShouldBeFoundInDatabaseWithZeroBooksOnHold(patronId)
+    }
+
+    def 'a patron change should be rolled back when handling its events fails'() {
+        given:
+            patronRepo.publish(patronCreated())
+        and:
+            eventMulticaster.addApplicationListener(failingOnHoldOfPatron)
+        when:
+            patronRepo.publish(placedOnHold())
+        then:
+            thrown(IllegalStateException)
+            patronEntityRepository.findByPatronId(patronId.patronId).booksOnHold.isEmpty()
+            patronShouldBeFoundInDatabaseWithZeroBooksOnHold(patronId)
+    }
+
+    Patrons repositoryPublishingWith(DomainEvents domainEvents) {
+        return new PatronsDatabaseRepository(
+                patronEntityRepository,
+                new DomainModelMapper(new PatronFactory(placingOnHoldPolicies)),
+                domainEvents,
+                jdbcTemplate,
+                patronsCache,
+                patronDatabaseChanges)
+    }
+
+    double cacheHits() {
+        return meterRegistry.get("cache.gets").tags("cache", "patrons", "result", "hit").functionCounter().count()
+    }
+
+    BookHoldExpired holdExpired(BookPlacedOnHoldEvents placedOnHold) {
+        return BookHoldExpired.now(
+                new BookId(placedOnHold.bookPlacedOnHold.bookId),
+                patronId,
+                new LibraryBranchId(placedOnHold.bookPlacedOnHold.libraryBranchId))
+    }
+
     BookPlacedOnHoldEvents placedOnHold() {
         return events(bookPlacedOnHoldNow(
                 anyBookId(),
@@ -76,6 +76,24 @@ class FindingPatronProfileInDatabaseIT extends Specification {
 
     }
 
+    def 'should load current holds and checkouts of patrons from sheets'() {
+        given:
+            dailySheet.handle(placedOnHoldTill(TOMORROW))
+        and:
+            PatronProfileProjection projection = new PatronProfileProjection()
+        when:
+            projection.loadFrom(new JdbcTemplate(dataSource))
+        then:
+            thereIsOnlyOneHold(projection.fetchFor(patronId))
+            projection.findHold(patronId, bookId).isDefined()
+        when:
+            dailySheet.handle(bookCheckedOutTill(TOMORROW))
+            projection = new PatronProfileProjection()
+            projection.loadFrom(new JdbcTemplate(dataSource))
+        then:
+            thereIsOnlyOneCheckout(projection.fetchFor(patronId))
+    }
+
     private PatronProfile createProfile() {
         PatronProfile profile
         profile = patronProfiles.fetchFor(patronId)
@@ -0,0 +1,64 @@
+package io.pillopl.library.catalogue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CatalogueRowMapperBenchmark {
+
+    @Param({"1", "1000"})
+    int rows;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("create_catalogue_book.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.update("INSERT INTO catalogue_book (id, isbn, title, author) " +
+                "SELECT catalogue_book_seq.nextval, '0198526636', 'Domain-Driven Design', 'Eric Evans' " +
+                "FROM SYSTEM_RANGE(1, " + rows + ")");
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public int beanPropertyRowMapper() {
+        return jdbcTemplate.query("SELECT b.* FROM catalogue_book b", new BeanPropertyRowMapper<>(BookDatabaseRow.class)).size();
+    }
+
+    @Benchmark
+    public int indexedRowMapper() {
+        return jdbcTemplate.query("SELECT " + BookDatabaseRowMapper.COLUMNS + " FROM catalogue_book b", BookDatabaseRowMapper.INSTANCE).size();
+    }
+}
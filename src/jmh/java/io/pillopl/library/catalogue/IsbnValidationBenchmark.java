@@ -0,0 +1,47 @@
+package io.pillopl.library.catalogue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of validating an ISBN with {@code String.matches}, as {@link ISBN} did before, and in place.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IsbnValidationBenchmark {
+
+    private static final String VERY_SIMPLE_ISBN_CHECK = "^\\d{9}[\\d|X]$";
+
+    @Param({"0321125215", "not an isbn"})
+    String isbn;
+
+    @Benchmark
+    public boolean regex() {
+        return isbn.trim().matches(VERY_SIMPLE_ISBN_CHECK);
+    }
+
+    @Benchmark
+    public boolean inPlace() {
+        return ISBN.isWellFormed(isbn.trim());
+    }
+
+    @Benchmark
+    public boolean inPlaceWithChecksum() {
+        String trimmed = isbn.trim();
+        return ISBN.isWellFormed(trimmed) && ISBN.hasValidChecksum(trimmed);
+    }
+}
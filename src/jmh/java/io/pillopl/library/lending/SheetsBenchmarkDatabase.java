@@ -0,0 +1,71 @@
+package io.pillopl.library.lending;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.UUID;
+
+public class SheetsBenchmarkDatabase {
+
+    public static final UUID PROFILED_PATRON = UUID.fromString("6e6a6c5f-1f3b-4d6e-9a55-3b0e3f2a8c01");
+
+    private static final int PROFILED_PATRON_HOLDS = 20;
+    private static final int PROFILED_PATRON_CHECKOUTS = 20;
+
+    public static EmbeddedDatabase sheetsWith(int rows, boolean indexed) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("create_sheets_db.sql")
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        fillHoldsSheet(jdbcTemplate, rows);
+        fillCheckoutsSheet(jdbcTemplate, rows);
+        if (indexed) {
+            new ResourceDatabasePopulator(new ClassPathResource("create_sheets_indexes.sql")).execute(database);
+        }
+        return database;
+    }
+
+    //every 100th hold is still active, half of them are past their due date
+    private static void fillHoldsSheet(JdbcTemplate jdbcTemplate, int rows) {
+        jdbcTemplate.update("INSERT INTO holds_sheet " +
+                "(id, book_id, status, hold_event_id, hold_at_branch, hold_by_patron_id, hold_at, hold_till, expired_at, canceled_at, checked_out_at) " +
+                "SELECT holds_sheet_seq.nextval, RANDOM_UUID(), " +
+                "CASE WHEN MOD(X, 100) = 0 THEN 'ACTIVE' ELSE 'EXPIRED' END, " +
+                "RANDOM_UUID(), RANDOM_UUID(), RANDOM_UUID(), " +
+                "DATEADD('DAY', -30, CURRENT_TIMESTAMP()), " +
+                "DATEADD('DAY', MOD(X, 10) - 5, CURRENT_TIMESTAMP()), " +
+                "CASE WHEN MOD(X, 100) = 0 THEN NULL ELSE CURRENT_TIMESTAMP() END, " +
+                "NULL, NULL " +
+                "FROM SYSTEM_RANGE(1, " + rows + ")");
+        jdbcTemplate.update("INSERT INTO holds_sheet " +
+                "(id, book_id, status, hold_event_id, hold_at_branch, hold_by_patron_id, hold_at, hold_till, expired_at, canceled_at, checked_out_at) " +
+                "SELECT holds_sheet_seq.nextval, RANDOM_UUID(), 'ACTIVE', RANDOM_UUID(), RANDOM_UUID(), ?, " +
+                "CURRENT_TIMESTAMP(), DATEADD('DAY', 5, CURRENT_TIMESTAMP()), NULL, NULL, NULL " +
+                "FROM SYSTEM_RANGE(1, " + PROFILED_PATRON_HOLDS + ")",
+                PROFILED_PATRON);
+    }
+
+    //every 100th checkout is not returned yet, half of them are overdue
+    private static void fillCheckoutsSheet(JdbcTemplate jdbcTemplate, int rows) {
+        jdbcTemplate.update("INSERT INTO checkouts_sheet " +
+                "(id, book_id, status, checkout_event_id, checked_out_by_patron_id, checked_out_at, returned_at, checked_out_at_branch, checkout_till) " +
+                "SELECT checkouts_sheet_seq.nextval, RANDOM_UUID(), " +
+                "CASE WHEN MOD(X, 100) = 0 THEN 'CHECKEDOUT' ELSE 'RETURNED' END, " +
+                "RANDOM_UUID(), RANDOM_UUID(), DATEADD('DAY', -30, CURRENT_TIMESTAMP()), " +
+                "CASE WHEN MOD(X, 100) = 0 THEN NULL ELSE CURRENT_TIMESTAMP() END, " +
+                "RANDOM_UUID(), DATEADD('DAY', MOD(X, 10) - 5, CURRENT_TIMESTAMP()) " +
+                "FROM SYSTEM_RANGE(1, " + rows + ")");
+        jdbcTemplate.update("INSERT INTO checkouts_sheet " +
+                "(id, book_id, status, checkout_event_id, checked_out_by_patron_id, checked_out_at, returned_at, checked_out_at_branch, checkout_till) " +
+                "SELECT checkouts_sheet_seq.nextval, RANDOM_UUID(), 'CHECKEDOUT', RANDOM_UUID(), ?, " +
+                "CURRENT_TIMESTAMP(), NULL, RANDOM_UUID(), DATEADD('DAY', 5, CURRENT_TIMESTAMP()) " +
+                "FROM SYSTEM_RANGE(1, " + PROFILED_PATRON_CHECKOUTS + ")",
+                PROFILED_PATRON);
+    }
+}
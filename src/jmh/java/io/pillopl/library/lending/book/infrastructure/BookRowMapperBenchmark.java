@@ -0,0 +1,65 @@
+package io.pillopl.library.lending.book.infrastructure;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BookRowMapperBenchmark {
+
+    @Param({"1", "1000"})
+    int rows;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("create_lending_book_db.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.update("INSERT INTO book_database_entity " +
+                "(id, book_id, book_type, book_state, on_hold_at_branch, on_hold_by_patron, on_hold_till, version) " +
+                "SELECT book_database_entity_seq.nextval, RANDOM_UUID(), 'Restricted', 'OnHold', RANDOM_UUID(), RANDOM_UUID(), CURRENT_TIMESTAMP(), 3 " +
+                "FROM SYSTEM_RANGE(1, " + rows + ")");
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public int beanPropertyRowMapper() {
+        return jdbcTemplate.query("SELECT b.* FROM book_database_entity b", new BeanPropertyRowMapper<>(BookDatabaseEntity.class)).size();
+    }
+
+    @Benchmark
+    public int indexedRowMapper() {
+        return jdbcTemplate.query("SELECT " + BookDatabaseEntityRowMapper.COLUMNS + " FROM book_database_entity b", BookDatabaseEntityRowMapper.INSTANCE).size();
+    }
+}
@@ -0,0 +1,79 @@
+package io.pillopl.library.lending.book.infrastructure;
+
+import io.pillopl.library.catalogue.BookId;
+import io.pillopl.library.catalogue.BookType;
+import io.pillopl.library.commons.aggregates.Version;
+import io.pillopl.library.lending.book.model.AvailableBook;
+import io.pillopl.library.lending.book.model.Book;
+import io.pillopl.library.lending.librarybranch.model.LibraryBranchId;
+import io.vavr.collection.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of making {@code books} new books available, saved one by one and with {@link BookDatabaseRepository#saveAll}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BookSavingBenchmark {
+
+    @Param({"1000", "10000"})
+    int books;
+
+    private EmbeddedDatabase database;
+    private BookDatabaseRepository repository;
+    private List<Book> newBooks;
+
+    @Setup
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("create_lending_book_db.sql")
+                .build();
+        repository = new BookDatabaseRepository(new JdbcTemplate(database));
+    }
+
+    @Setup(Level.Invocation)
+    public void newBooks() {
+        LibraryBranchId branch = new LibraryBranchId(UUID.randomUUID());
+        newBooks = List.fill(books, () -> new AvailableBook(new BookId(UUID.randomUUID()), BookType.Circulating, branch, Version.zero()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public void oneByOne() {
+        newBooks.forEach(repository::save);
+    }
+
+    @Benchmark
+    public void saveAll() {
+        repository.saveAll(newBooks);
+    }
+}
@@ -0,0 +1,59 @@
+package io.pillopl.library.lending.dailysheet.infrastructure;
+
+import io.pillopl.library.lending.SheetsBenchmarkDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DailySheetQueryBenchmark {
+
+    @Param({"1000000"})
+    int rows;
+
+    @Param({"false", "true"})
+    boolean indexed;
+
+    private EmbeddedDatabase database;
+    private SheetsReadModel readModel;
+
+    @Setup
+    public void setup() {
+        database = SheetsBenchmarkDatabase.sheetsWith(rows, indexed);
+        readModel = new SheetsReadModel(new JdbcTemplate(database), Clock.systemDefaultZone());
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public int holdsToExpire() {
+        return readModel.queryForHoldsToExpireSheet().count();
+    }
+
+    @Benchmark
+    public int checkoutsToOverdue() {
+        return readModel.queryForCheckoutsToOverdue().count();
+    }
+}
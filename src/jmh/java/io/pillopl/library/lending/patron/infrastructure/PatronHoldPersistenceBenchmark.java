@@ -0,0 +1,112 @@
+package io.pillopl.library.lending.patron.infrastructure;
+
+import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldCanceled;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHold;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static io.pillopl.library.catalogue.BookType.Circulating;
+import static io.pillopl.library.lending.patron.model.PatronType.Researcher;
+
+/**
+ * Cost of persisting one hold placed and canceled, minimally and as Spring Data JDBC rewrites the aggregate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PatronHoldPersistenceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int holds;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private PatronDatabaseChanges changes;
+    private PatronDatabaseEntity patron;
+    private List<Map<String, Object>> existingHolds;
+
+    @Setup
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("create_patron_db.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        changes = new PatronDatabaseChanges(jdbcTemplate);
+        patron = new PatronDatabaseEntity();
+        patron.patronId = UUID.randomUUID();
+        patron.patronType = Researcher;
+        jdbcTemplate.update("INSERT INTO patron_database_entity (patron_type, patron_id, version) VALUES (?, ?, 0)",
+                patron.patronType.toString(), patron.patronId);
+        patron.id = jdbcTemplate.queryForObject("SELECT id FROM patron_database_entity WHERE patron_id = ?", Long.class, patron.patronId);
+        jdbcTemplate.update("INSERT INTO hold_database_entity (book_id, patron_id, library_branch_id, patron_database_entity, till) " +
+                "SELECT RANDOM_UUID(), ?, RANDOM_UUID(), ?, DATEADD('DAY', 5, CURRENT_TIMESTAMP()) FROM SYSTEM_RANGE(1, " + holds + ")",
+                patron.patronId, patron.id);
+        existingHolds = jdbcTemplate.queryForList("SELECT book_id, patron_id, library_branch_id, till FROM hold_database_entity WHERE patron_database_entity = ?", patron.id);
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public void incremental() {
+        UUID bookId = UUID.randomUUID();
+        UUID branchId = UUID.randomUUID();
+        changes.persist(patron, placedOnHold(bookId, branchId));
+        changes.persist(patron, new BookHoldCanceled(Instant.now(), patron.patronId, bookId, branchId));
+    }
+
+    @Benchmark
+    public void wholeAggregateRewrite() {
+        UUID bookId = UUID.randomUUID();
+        UUID branchId = UUID.randomUUID();
+        rewriteHolds(bookId, branchId, Timestamp.from(Instant.now().plusSeconds(3600)));
+        rewriteHolds(null, null, null);
+    }
+
+    private void rewriteHolds(UUID extraBookId, UUID extraBranchId, Timestamp extraTill) {
+        jdbcTemplate.update("UPDATE patron_database_entity SET patron_type = ?, patron_id = ? WHERE id = ?", patron.patronType.toString(), patron.patronId, patron.id);
+        jdbcTemplate.update("DELETE FROM hold_database_entity WHERE patron_database_entity = ?", patron.id);
+        existingHolds.forEach(hold -> insertHold(hold.get("BOOK_ID"), hold.get("LIBRARY_BRANCH_ID"), hold.get("TILL")));
+        if (extraBookId != null) {
+            insertHold(extraBookId, extraBranchId, extraTill);
+        }
+    }
+
+    private void insertHold(Object bookId, Object branchId, Object till) {
+        jdbcTemplate.update("INSERT INTO hold_database_entity (book_id, patron_id, library_branch_id, patron_database_entity, till) VALUES (?, ?, ?, ?, ?)",
+                bookId, patron.patronId, branchId, patron.id, till);
+    }
+
+    private BookPlacedOnHold placedOnHold(UUID bookId, UUID branchId) {
+        Instant now = Instant.now();
+        return new BookPlacedOnHold(now, patron.patronId, bookId, Circulating, branchId, now, now.plusSeconds(3600));
+    }
+}
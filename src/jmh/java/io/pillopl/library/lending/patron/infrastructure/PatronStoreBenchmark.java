@@ -0,0 +1,137 @@
+package io.pillopl.library.lending.patron.infrastructure;
+
+import io.pillopl.library.commons.events.DomainEvents;
+import io.pillopl.library.lending.patron.model.PatronEvent;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldCanceled;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHold;
+import io.pillopl.library.lending.patron.model.PatronEvent.PatronCreated;
+import io.pillopl.library.lending.patron.model.PatronFactory;
+import io.pillopl.library.lending.patron.model.PatronId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static io.pillopl.library.catalogue.BookType.Circulating;
+import static io.pillopl.library.lending.patron.model.PatronType.Researcher;
+
+/**
+ * Throughput of placing and canceling a hold, with the patron kept as relational rows or as an event stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PatronStoreBenchmark {
+
+    private static final DomainEvents NO_EVENTS = event -> {
+    };
+
+    @Param({"10", "100", "1000"})
+    int holds;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private PatronDatabaseChanges changes;
+    private EventSourcedPatrons eventSourced;
+    private UUID relationalPatron;
+    private UUID eventSourcedPatron;
+
+    @Setup
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("create_patron_db.sql")
+                .addScript("create_patron_event_store_db.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        changes = new PatronDatabaseChanges(jdbcTemplate);
+        eventSourced = new EventSourcedPatrons(jdbcTemplate, new DomainModelMapper(new PatronFactory()), NO_EVENTS, 100);
+
+        relationalPatron = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO patron_database_entity (patron_type, patron_id, version) VALUES (?, ?, 0)",
+                Researcher.toString(), relationalPatron);
+        jdbcTemplate.update("INSERT INTO hold_database_entity (book_id, patron_id, library_branch_id, patron_database_entity, till) " +
+                "SELECT RANDOM_UUID(), p.patron_id, RANDOM_UUID(), p.id, DATEADD('DAY', 5, CURRENT_TIMESTAMP()) " +
+                "FROM patron_database_entity p, SYSTEM_RANGE(1, " + holds + ") WHERE p.patron_id = ?", relationalPatron);
+
+        eventSourcedPatron = UUID.randomUUID();
+        eventSourced.publish(PatronCreated.now(new PatronId(eventSourcedPatron), Researcher));
+        for (int i = 0; i < holds; i++) {
+            eventSourced.publish(placedOnHold(eventSourcedPatron, UUID.randomUUID(), UUID.randomUUID()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public int relational() {
+        UUID bookId = UUID.randomUUID();
+        UUID branchId = UUID.randomUUID();
+        persist(placedOnHold(relationalPatron, bookId, branchId));
+        return persist(new BookHoldCanceled(Instant.now(), relationalPatron, bookId, branchId));
+    }
+
+    @Benchmark
+    public int eventSourced() {
+        UUID bookId = UUID.randomUUID();
+        UUID branchId = UUID.randomUUID();
+        eventSourced.publish(placedOnHold(eventSourcedPatron, bookId, branchId));
+        return eventSourced.publish(new BookHoldCanceled(Instant.now(), eventSourcedPatron, bookId, branchId)).numberOfHolds();
+    }
+
+    private int persist(PatronEvent event) {
+        PatronDatabaseEntity patron = loadRelational();
+        changes.persist(patron.handle(event), event);
+        return patron.booksOnHold.size();
+    }
+
+    private PatronDatabaseEntity loadRelational() {
+        PatronDatabaseEntity patron = jdbcTemplate.queryForObject(
+                "SELECT p.id, p.patron_type, p.version FROM patron_database_entity p WHERE p.patron_id = ?",
+                (rs, i) -> {
+                    PatronDatabaseEntity entity = new PatronDatabaseEntity(new PatronId(relationalPatron), Researcher);
+                    entity.id = rs.getLong(1);
+                    entity.version = rs.getInt(3);
+                    return entity;
+                },
+                relationalPatron);
+        patron.booksOnHold = new HashSet<>(jdbcTemplate.query(
+                "SELECT h.book_id, h.library_branch_id, h.till FROM hold_database_entity h WHERE h.patron_database_entity = ?",
+                (rs, i) -> new HoldDatabaseEntity(
+                        rs.getObject(1, UUID.class),
+                        relationalPatron,
+                        rs.getObject(2, UUID.class),
+                        rs.getTimestamp(3).toInstant()),
+                patron.id));
+        return patron;
+    }
+
+    private static BookPlacedOnHold placedOnHold(UUID patronId, UUID bookId, UUID branchId) {
+        Instant now = Instant.now();
+        return new BookPlacedOnHold(now, patronId, bookId, Circulating, branchId, now, now.plusSeconds(3600));
+    }
+}
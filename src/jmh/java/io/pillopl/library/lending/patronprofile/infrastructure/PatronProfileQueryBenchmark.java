@@ -0,0 +1,57 @@
+package io.pillopl.library.lending.patronprofile.infrastructure;
+
+import io.pillopl.library.lending.SheetsBenchmarkDatabase;
+import io.pillopl.library.lending.patron.model.PatronId;
+import io.pillopl.library.lending.patronprofile.model.PatronProfile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PatronProfileQueryBenchmark {
+
+    private static final PatronId PATRON = new PatronId(SheetsBenchmarkDatabase.PROFILED_PATRON);
+
+    @Param({"1000000"})
+    int rows;
+
+    @Param({"false", "true"})
+    boolean indexed;
+
+    private EmbeddedDatabase database;
+    private PatronProfileReadModel readModel;
+
+    @Setup
+    public void setup() {
+        database = SheetsBenchmarkDatabase.sheetsWith(rows, indexed);
+        readModel = new PatronProfileReadModel(new JdbcTemplate(database));
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public PatronProfile patronProfile() {
+        return readModel.fetchFor(PATRON);
+    }
+}
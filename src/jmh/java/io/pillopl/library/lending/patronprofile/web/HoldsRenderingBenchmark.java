@@ -0,0 +1,92 @@
+package io.pillopl.library.lending.patronprofile.web;
+
+import io.pillopl.library.catalogue.BookId;
+import io.pillopl.library.lending.patronprofile.model.CheckoutsView;
+import io.pillopl.library.lending.patronprofile.model.HoldsView;
+import io.pillopl.library.lending.patronprofile.model.PatronProfile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.afford;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Cost of rendering the holds of a patron, with links built once per request and per hold as before {@link ProfileLinks}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HoldsRenderingBenchmark {
+
+    @Param({"10", "100", "500"})
+    int holds;
+
+    private final UUID patronId = UUID.randomUUID();
+    private PatronProfile profile;
+    private PatronProfileController controller;
+    private ServletWebRequest request;
+
+    @Setup
+    public void setup() {
+        profile = new PatronProfile(
+                new HoldsView(io.vavr.collection.List.fill(holds, () ->
+                        new io.pillopl.library.lending.patronprofile.model.Hold(new BookId(UUID.randomUUID()), Instant.now()))),
+                new CheckoutsView(io.vavr.collection.List.empty()));
+        controller = new PatronProfileController(patron -> profile, null, null);
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/profiles/" + patronId + "/holds/");
+        request = new ServletWebRequest(servletRequest);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest));
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public CollectionModel<EntityModel<Hold>> precomputedLinks() {
+        return controller.findHolds(patronId, request).getBody();
+    }
+
+    @Benchmark
+    public CollectionModel<EntityModel<Hold>> perItemLinkBuilding() {
+        List<EntityModel<Hold>> resources = profile
+                .getHoldsView()
+                .getCurrentHolds()
+                .toStream()
+                .map(hold -> new EntityModel<>(
+                        new Hold(hold),
+                        linkTo(methodOn(PatronProfileController.class).findHold(patronId, hold.getBook().getBookId(), null))
+                                .withSelfRel()
+                                .andAffordance(afford(methodOn(PatronProfileController.class)
+                                        .cancelHold(patronId, hold.getBook().getBookId())))))
+                .collect(toList());
+        return new CollectionModel<>(resources, linkTo(methodOn(PatronProfileController.class).findHolds(patronId, null)).withSelfRel());
+    }
+}
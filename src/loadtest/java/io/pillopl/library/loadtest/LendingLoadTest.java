@@ -0,0 +1,175 @@
+package io.pillopl.library.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-model load test of patron profile reads against a running lending application.
+ * Every one of {@code concurrency} workers issues a request, waits for the answer and issues the next one,
+ * for {@code warmup} unmeasured and then {@code duration} measured.
+ * Run it once against the app started with {@code lending.web.execution=pooled} and once with {@code elastic}
+ * to compare throughput and latency of both execution modes.
+ */
+public class LendingLoadTest {
+
+    public static void main(String[] args) throws InterruptedException {
+        String baseUrl = System.getProperty("loadtest.base-url", "http://localhost:8080");
+        int concurrency = Integer.getInteger("loadtest.concurrency", 400);
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+        List<UUID> patrons = patrons(System.getProperty("loadtest.patrons", ""));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        List<Worker> workers = new ArrayList<>();
+        CountDownLatch finished = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(client, baseUrl, patrons, measureFrom, measureUntil, finished);
+            workers.add(worker);
+            Thread thread = new Thread(worker, "loadtest-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        finished.await(warmup.plus(duration).plusMinutes(1).toMillis(), TimeUnit.MILLISECONDS);
+
+        report(workers, concurrency, duration);
+    }
+
+    private static List<UUID> patrons(String configured) {
+        if (configured.isBlank()) {
+            List<UUID> random = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                random.add(UUID.randomUUID());
+            }
+            return random;
+        }
+        List<UUID> patrons = new ArrayList<>();
+        Arrays.stream(configured.split(",")).map(String::trim).map(UUID::fromString).forEach(patrons::add);
+        return patrons;
+    }
+
+    private static void report(List<Worker> workers, int concurrency, Duration duration) {
+        long requests = 0;
+        long errors = 0;
+        int recorded = 0;
+        for (Worker worker : workers) {
+            requests += worker.requests;
+            errors += worker.errors;
+            recorded += worker.count;
+        }
+        long[] latencies = new long[recorded];
+        int offset = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            offset += worker.count;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("concurrency: %d, duration: %s%n", concurrency, duration);
+        System.out.printf("requests:    %d (%d errors)%n", requests, errors);
+        System.out.printf("throughput:  %.1f req/s%n", requests / (double) duration.toSeconds());
+        System.out.printf("latency ms:  p50 %.2f, p95 %.2f, p99 %.2f, max %.2f%n",
+                millis(percentile(latencies, 0.50)),
+                millis(percentile(latencies, 0.95)),
+                millis(percentile(latencies, 0.99)),
+                millis(latencies.length == 0 ? 0 : latencies[latencies.length - 1]));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class Worker implements Runnable {
+
+        private final HttpClient client;
+        private final String baseUrl;
+        private final List<UUID> patrons;
+        private final long measureFrom;
+        private final long measureUntil;
+        private final CountDownLatch finished;
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long requests;
+        private long errors;
+
+        Worker(HttpClient client, String baseUrl, List<UUID> patrons, long measureFrom, long measureUntil, CountDownLatch finished) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.patrons = patrons;
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+            this.finished = finished;
+        }
+
+        @Override
+        public void run() {
+            try {
+                long now;
+                while ((now = System.nanoTime()) < measureUntil) {
+                    boolean ok = send(nextRequest());
+                    long took = System.nanoTime() - now;
+                    if (now >= measureFrom) {
+                        record(took, ok);
+                    }
+                }
+            } finally {
+                finished.countDown();
+            }
+        }
+
+        private HttpRequest nextRequest() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            UUID patron = patrons.get(random.nextInt(patrons.size()));
+            String resource = random.nextBoolean() ? "/holds/" : "/checkouts/";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/profiles/" + patron + resource))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+        }
+
+        private boolean send(HttpRequest request) {
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                return response.statusCode() < 500;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        private void record(long latency, boolean ok) {
+            requests++;
+            if (!ok) {
+                errors++;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+    }
+}
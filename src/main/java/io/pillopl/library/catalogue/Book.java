@@ -25,6 +25,10 @@ class Book {
             new Author(author)
         );
     }
+
+    static Book newBook(String isbn, String author, String title) {
+        return new Book(ISBN.withValidChecksum(isbn), new Title(title), new Author(author));
+    }
 }
 
 
@@ -0,0 +1,24 @@
+package io.pillopl.library.catalogue;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Columns are read in the order of {@link #COLUMNS}.
+ */
+class BookDatabaseRowMapper implements RowMapper<BookDatabaseRow> {
+
+    static final String COLUMNS = "b.isbn, b.author, b.title";
+
+    static final BookDatabaseRowMapper INSTANCE = new BookDatabaseRowMapper();
+
+    private BookDatabaseRowMapper() {
+    }
+
+    @Override
+    public BookDatabaseRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new BookDatabaseRow(rs.getString(1), rs.getString(2), rs.getString(3));
+    }
+}
@@ -22,4 +22,8 @@ class BookInstance {
         return new BookInstance(book.getBookIsbn(), new BookId(UUID.randomUUID()), bookType);
 
     }
+
+    static BookInstance instanceOf(BookInstanceRecord record) {
+        return new BookInstance(record.getBookIsbn(), new BookId(UUID.randomUUID()), record.getBookType());
+    }
 }
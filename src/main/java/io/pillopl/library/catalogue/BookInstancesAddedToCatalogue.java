@@ -0,0 +1,28 @@
+package io.pillopl.library.catalogue;
+
+import io.pillopl.library.commons.events.DomainEvent;
+import io.vavr.collection.List;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Chunks of one import share the import id as their aggregate id, so they are forwarded in order.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class BookInstancesAddedToCatalogue implements DomainEvent {
+
+    UUID eventId = UUID.randomUUID();
+    UUID importId;
+    List<BookInstanceAddedToCatalogue> instances;
+    Instant when = Instant.now();
+
+    @Override
+    public UUID getAggregateId() {
+        return importId;
+    }
+}
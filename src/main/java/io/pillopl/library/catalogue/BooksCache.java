@@ -0,0 +1,66 @@
+package io.pillopl.library.catalogue;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.vavr.control.Option;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Missing books are not cached, so a book added around the cache is found on its next lookup.
+ */
+interface BooksCache {
+
+    Option<Book> get(ISBN isbn, Function<ISBN, Option<Book>> loader);
+
+    void put(Book book);
+
+    static BooksCache none() {
+        return NoBooksCache.INSTANCE;
+    }
+
+    static BooksCache bounded(long maximumSize, Duration expireAfterWrite, MeterRegistry meterRegistry) {
+        return new CaffeineBooksCache(maximumSize, expireAfterWrite, meterRegistry);
+    }
+}
+
+class NoBooksCache implements BooksCache {
+
+    static final NoBooksCache INSTANCE = new NoBooksCache();
+
+    @Override
+    public Option<Book> get(ISBN isbn, Function<ISBN, Option<Book>> loader) {
+        return loader.apply(isbn);
+    }
+
+    @Override
+    public void put(Book book) {
+    }
+}
+
+class CaffeineBooksCache implements BooksCache {
+
+    private final Cache<ISBN, Book> books;
+
+    CaffeineBooksCache(long maximumSize, Duration expireAfterWrite, MeterRegistry meterRegistry) {
+        this.books = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, books, "catalogue_books");
+    }
+
+    @Override
+    public Option<Book> get(ISBN isbn, Function<ISBN, Option<Book>> loader) {
+        return Option.of(books.get(isbn, key -> loader.apply(key).getOrNull()));
+    }
+
+    @Override
+    public void put(Book book) {
+        books.put(book.getBookIsbn(), book);
+    }
+}
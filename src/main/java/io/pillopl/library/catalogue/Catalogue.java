@@ -14,18 +14,24 @@ public class Catalogue {
 
     private final CatalogueDatabase database;
     private final DomainEvents domainEvents;
+    private final BooksCache books;
+
+    Catalogue(CatalogueDatabase database, DomainEvents domainEvents) {
+        this(database, domainEvents, BooksCache.none());
+    }
 
     public Try<Result> addBook(String author, String title, String isbn) {
         return Try.of(() -> {
-            Book book = new Book(isbn, author, title);
+            Book book = Book.newBook(isbn, author, title);
             database.saveNew(book);
+            books.put(book);
             return Success;
         });
     }
 
     public Try<Result> addBookInstance(String isbn, BookType bookType) {
-        return Try.of(() -> database
-                .findBy(new ISBN(isbn))
+        return Try.of(() -> books
+                .get(new ISBN(isbn), database::findBy)
                 .map(book -> BookInstance.instanceOf(book, bookType))
                 .map(this::saveAndPublishEvent)
                 .map(savedInstance -> Success)
@@ -1,14 +1,24 @@
 package io.pillopl.library.catalogue;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.pillopl.library.commons.events.DomainEvents;
 import io.pillopl.library.commons.events.publisher.DomainEventsConfig;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Profile;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
 
 @Configuration
 @EnableAutoConfiguration
@@ -16,8 +26,22 @@ import org.springframework.jdbc.core.JdbcTemplate;
 public class CatalogueConfiguration {
 
     @Bean
-    Catalogue catalogue(CatalogueDatabase catalogueDatabase, DomainEvents domainEvents) {
-        return new Catalogue(catalogueDatabase, domainEvents);
+    Catalogue catalogue(CatalogueDatabase catalogueDatabase, DomainEvents domainEvents, BooksCache booksCache) {
+        return new Catalogue(catalogueDatabase, domainEvents, booksCache);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "catalogue.cache.enabled", havingValue = "false", matchIfMissing = true)
+    BooksCache noBooksCache() {
+        return BooksCache.none();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "catalogue.cache.enabled", havingValue = "true")
+    BooksCache booksCache(@Value("${catalogue.cache.maximum-size:100000}") long maximumSize,
+                          @Value("${catalogue.cache.expire-after-write:1h}") Duration expireAfterWrite,
+                          MeterRegistry meterRegistry) {
+        return BooksCache.bounded(maximumSize, expireAfterWrite, meterRegistry);
     }
 
     @Bean
@@ -25,6 +49,24 @@ public class CatalogueConfiguration {
         return new CatalogueDatabase(jdbcTemplate);
     }
 
+    @Bean
+    CatalogueImport catalogueImport(CatalogueDatabase catalogueDatabase,
+                                    DomainEvents domainEvents,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${catalogue.import.chunk-size:1000}") int chunkSize,
+                                    @Value("${catalogue.import.parallelism:4}") int parallelism) {
+        return new CatalogueImport(catalogueDatabase, domainEvents, new TransactionTemplate(transactionManager), chunkSize, parallelism, meterRegistry);
+    }
+
+    @ConditionalOnProperty(name = "catalogue.import.file")
+    @Bean
+    CommandLineRunner importCatalogue(CatalogueImport catalogueImport, @Value("${catalogue.import.file}") String file) {
+        return args -> catalogueImport
+                .importFrom(Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8), CatalogueImport.Format.of(file))
+                .get();
+    }
+
     @Profile("local")
     @Bean
     CommandLineRunner init(Catalogue catalogue) {
@@ -1,12 +1,14 @@
 package io.pillopl.library.catalogue;
 
+import io.vavr.collection.HashSet;
+import io.vavr.collection.List;
+import io.vavr.collection.Set;
 import io.vavr.control.Option;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 @AllArgsConstructor(access = AccessLevel.PACKAGE)
@@ -32,12 +34,48 @@ class CatalogueDatabase {
         return bookInstance;
     }
 
+    void saveNew(List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("" +
+                        "INSERT INTO catalogue_book " +
+                        "(id, isbn, title, author) VALUES " +
+                        "(catalogue_book_seq.nextval, ?, ?, ?)",
+                books.map(book -> new Object[]{book.getBookIsbn().getIsbn(), book.getTitle().getTitle(), book.getAuthor().getName()})
+                        .asJava());
+    }
+
+    void saveNewInstances(List<BookInstance> bookInstances) {
+        if (bookInstances.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("" +
+                        "INSERT INTO catalogue_book_instance " +
+                        "(id, isbn, book_id) VALUES " +
+                        "(catalogue_book_instance_seq.nextval, ?, ?)",
+                bookInstances.map(instance -> new Object[]{instance.getBookIsbn().getIsbn(), instance.getBookId().getBookId()})
+                        .asJava());
+    }
+
+    Set<ISBN> existing(Set<ISBN> isbns) {
+        if (isbns.isEmpty()) {
+            return HashSet.empty();
+        }
+        List<String> values = isbns.toList().map(ISBN::getIsbn);
+        return HashSet.ofAll(jdbcTemplate.queryForList(
+                "SELECT DISTINCT b.isbn FROM catalogue_book b WHERE b.isbn IN (" + values.map(isbn -> "?").mkString(", ") + ")",
+                String.class,
+                values.toJavaArray()))
+                .map(ISBN::new);
+    }
+
     Option<Book> findBy(ISBN isbn) {
         try {
             return Option.of(
                     jdbcTemplate.queryForObject(
-                            "SELECT b.* FROM catalogue_book b WHERE b.isbn = ?",
-                            new BeanPropertyRowMapper<>(BookDatabaseRow.class),
+                            "SELECT " + BookDatabaseRowMapper.COLUMNS + " FROM catalogue_book b WHERE b.isbn = ?",
+                            BookDatabaseRowMapper.INSTANCE,
                             isbn.getIsbn())
                             .toBook());
         } catch (EmptyResultDataAccessException e) {
@@ -50,6 +88,7 @@ class CatalogueDatabase {
 
 @Data
 @NoArgsConstructor(access = AccessLevel.PACKAGE)
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
 class BookDatabaseRow {
     String isbn;
     String author;
@@ -1,41 +1,39 @@
 package io.pillopl.library.catalogue;
 
+import io.pillopl.library.commons.jdbc.DataSources;
+import io.pillopl.library.commons.jdbc.DataSourcesConfig;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
-import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
-import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
 import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
 
 @Configuration
+@Import(DataSourcesConfig.class)
 class CatalogueDatabaseConfig {
 
     @Bean
-    JdbcTemplate jdbcTemplate() {
-        return new JdbcTemplate(dataSource());
+    JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
     }
 
     @Bean
-    NamedParameterJdbcOperations operations() {
-        return new NamedParameterJdbcTemplate(dataSource());
+    NamedParameterJdbcOperations operations(DataSource dataSource) {
+        return new NamedParameterJdbcTemplate(dataSource);
     }
 
     @Bean
-    PlatformTransactionManager transactionManager() {
-        return new DataSourceTransactionManager(dataSource());
+    PlatformTransactionManager transactionManager(DataSource dataSource) {
+        return new DataSourceTransactionManager(dataSource);
     }
 
     @Bean
-    DataSource dataSource() {
-        return new EmbeddedDatabaseBuilder()
-                .generateUniqueName(true)
-                .setType(EmbeddedDatabaseType.H2)
-                .addScript("create_catalogue_book.sql")
-                .build();
+    DataSource dataSource(DataSources dataSources) {
+        return dataSources.create("catalogue", "create_catalogue_book.sql", "create_domain_events_outbox.sql");
     }
-}
\ No newline at end of file
+}
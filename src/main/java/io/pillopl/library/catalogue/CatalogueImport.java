@@ -0,0 +1,242 @@
+package io.pillopl.library.catalogue;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.pillopl.library.commons.events.DomainEvents;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.List;
+import io.vavr.collection.Set;
+import io.vavr.control.Either;
+import io.vavr.control.Try;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Imports books and instances chunk by chunk; the instances of a chunk are announced only once it has committed.
+ */
+@Slf4j
+public class CatalogueImport implements AutoCloseable {
+
+    public enum Format {
+        CSV, JSON_LINES;
+
+        public static Format of(String fileName) {
+            return fileName.endsWith(".jsonl") || fileName.endsWith(".json") ? JSON_LINES : CSV;
+        }
+    }
+
+    static final int REPORTED_REJECTIONS = 100;
+
+    private final CatalogueDatabase database;
+    private final DomainEvents domainEvents;
+    private final TransactionOperations transactions;
+    private final int chunkSize;
+    private final ForkJoinPool validators;
+    private final Timer chunks;
+    private final Counter booksImported;
+    private final Counter instancesImported;
+    private final Counter rejected;
+    private final AtomicLong linesRead = new AtomicLong();
+
+    CatalogueImport(CatalogueDatabase database,
+                    DomainEvents domainEvents,
+                    TransactionOperations transactions,
+                    int chunkSize,
+                    int parallelism,
+                    MeterRegistry meterRegistry) {
+        this.database = database;
+        this.domainEvents = domainEvents;
+        this.transactions = transactions;
+        this.chunkSize = chunkSize;
+        this.validators = new ForkJoinPool(parallelism);
+        this.chunks = meterRegistry.timer("catalogue_import_chunk");
+        this.booksImported = meterRegistry.counter("catalogue_import_records", "kind", "book", "outcome", "imported");
+        this.instancesImported = meterRegistry.counter("catalogue_import_records", "kind", "instance", "outcome", "imported");
+        this.rejected = meterRegistry.counter("catalogue_import_records", "kind", "any", "outcome", "rejected");
+        Gauge.builder("catalogue_import_lines_read", linesRead, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    public Try<Report> importFrom(Reader source, Format format) {
+        return Try.of(() -> {
+            Progress progress = new Progress(UUID.randomUUID(), System.nanoTime());
+            try (BufferedReader reader = new BufferedReader(source)) {
+                java.util.List<NumberedLine> chunk = new ArrayList<>(chunkSize);
+                long number = 0;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    number++;
+                    linesRead.incrementAndGet();
+                    if (CatalogueRecords.isRecord(line)) {
+                        chunk.add(new NumberedLine(number, line));
+                    }
+                    if (chunk.size() == chunkSize) {
+                        importChunk(chunk, format, progress);
+                        chunk.clear();
+                    }
+                }
+                importChunk(chunk, format, progress);
+            }
+            Report report = progress.report();
+            log.info("Catalogue import {} finished: {}", report.getImportId(), report);
+            return report;
+        });
+    }
+
+    private void importChunk(java.util.List<NumberedLine> lines, Format format, Progress progress) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        chunks.record(() -> {
+            List<Tuple2<NumberedLine, Try<Either<Book, BookInstanceRecord>>>> parsed = validate(lines, format);
+            parsed.filter(record -> record._2.isFailure())
+                    .forEach(record -> progress.rejected(record._1, record._2.getCause().getMessage()));
+            List<Tuple2<NumberedLine, Book>> books = parsed
+                    .filter(record -> record._2.isSuccess() && record._2.get().isLeft())
+                    .map(record -> Tuple.of(record._1, record._2.get().getLeft()));
+            List<Tuple2<NumberedLine, BookInstanceRecord>> instances = parsed
+                    .filter(record -> record._2.isSuccess() && record._2.get().isRight())
+                    .map(record -> Tuple.of(record._1, record._2.get().get()));
+            Try.of(() -> transactions.execute(status -> save(books, instances)))
+                    .onSuccess(saved -> {
+                        if (!saved.instances.isEmpty()) {
+                            domainEvents.publish(new BookInstancesAddedToCatalogue(progress.importId,
+                                    saved.instances.map(BookInstanceAddedToCatalogue::new)));
+                        }
+                        progress.imported(saved.books, saved.instances.size());
+                        saved.rejected.forEach(rejection -> progress.rejected(rejection._1, rejection._2));
+                    })
+                    .onFailure(failure -> {
+                        log.warn("Catalogue import {}: chunk of lines {}-{} failed", progress.importId,
+                                lines.get(0).number, lines.get(lines.size() - 1).number, failure);
+                        books.map(Tuple2::_1).appendAll(instances.map(Tuple2::_1))
+                                .forEach(line -> progress.rejected(line, "Chunk failed: " + failure.getMessage()));
+                    });
+        });
+        log.debug("Catalogue import {}: {} lines read", progress.importId, lines.get(lines.size() - 1).number);
+    }
+
+    private List<Tuple2<NumberedLine, Try<Either<Book, BookInstanceRecord>>>> validate(java.util.List<NumberedLine> lines, Format format) {
+        return List.ofAll(validators
+                .submit(() -> lines
+                        .parallelStream()
+                        .map(line -> Tuple.of(line, CatalogueRecords.parse(line.text, format)))
+                        .collect(toList()))
+                .join());
+    }
+
+    private SavedChunk save(List<Tuple2<NumberedLine, Book>> books,
+                            List<Tuple2<NumberedLine, BookInstanceRecord>> instances) {
+        Set<ISBN> stored = database.existing(HashSet.ofAll(books.map(book -> book._2.getBookIsbn()))
+                .addAll(instances.map(instance -> instance._2.getBookIsbn())));
+        List<Tuple2<NumberedLine, Book>> newBooks = books
+                .filter(book -> !stored.contains(book._2.getBookIsbn()))
+                .distinctBy(book -> book._2.getBookIsbn());
+        database.saveNew(newBooks.map(Tuple2::_2));
+        Set<ISBN> known = stored.addAll(newBooks.map(book -> book._2.getBookIsbn()));
+        List<BookInstance> saved = instances
+                .filter(instance -> known.contains(instance._2.getBookIsbn()))
+                .map(instance -> BookInstance.instanceOf(instance._2));
+        database.saveNewInstances(saved);
+        List<Tuple2<NumberedLine, String>> rejected = books
+                .removeAll(newBooks)
+                .map(book -> Tuple.of(book._1, "Book with ISBN " + book._2.getBookIsbn().getIsbn()
+                        + (stored.contains(book._2.getBookIsbn()) ? " already in the catalogue" : " repeated in the import")))
+                .appendAll(instances
+                        .filter(instance -> !known.contains(instance._2.getBookIsbn()))
+                        .map(instance -> Tuple.of(instance._1, "No book with ISBN " + instance._2.getBookIsbn().getIsbn())));
+        return new SavedChunk(newBooks.size(), saved, rejected);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        validators.shutdown();
+        validators.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private class Progress {
+
+        private final UUID importId;
+        private final long startedAt;
+        private long books;
+        private long instances;
+        private long rejectedRecords;
+        private List<String> rejections = List.empty();
+
+        Progress(UUID importId, long startedAt) {
+            this.importId = importId;
+            this.startedAt = startedAt;
+        }
+
+        void imported(int books, int instances) {
+            this.books += books;
+            this.instances += instances;
+            booksImported.increment(books);
+            instancesImported.increment(instances);
+        }
+
+        void rejected(NumberedLine line, String reason) {
+            rejectedRecords++;
+            rejected.increment();
+            if (rejections.size() < REPORTED_REJECTIONS) {
+                rejections = rejections.append("line " + line.number + ": " + reason);
+            }
+        }
+
+        Report report() {
+            return new Report(importId, books, instances, rejectedRecords, rejections, Duration.ofNanos(System.nanoTime() - startedAt));
+        }
+    }
+
+    @Value
+    private static class NumberedLine {
+        long number;
+        String text;
+    }
+
+    @Value
+    private static class SavedChunk {
+        int books;
+        List<BookInstance> instances;
+        List<Tuple2<NumberedLine, String>> rejected;
+    }
+
+    /**
+     * Outcome of one import; {@code rejections} describes at most the first {@value CatalogueImport#REPORTED_REJECTIONS} rejected records.
+     */
+    @Value
+    public static class Report {
+        UUID importId;
+        long books;
+        long instances;
+        long rejected;
+        List<String> rejections;
+        Duration took;
+
+        public double recordsPerSecond() {
+            return took.isZero() ? 0 : (books + instances + rejected) / (took.toNanos() / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d books, %d instances, %d rejected in %s (%.0f records/s)",
+                    books, instances, rejected, took, recordsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package io.pillopl.library.catalogue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vavr.control.Either;
+import io.vavr.control.Try;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses single CSV or JSON lines of an import, each describing a book or one instance of a book.
+ */
+class CatalogueRecords {
+
+    static final int MAX_TEXT_LENGTH = 100;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    static boolean isRecord(String line) {
+        String trimmed = line.trim();
+        return !trimmed.isEmpty() && !trimmed.startsWith("#");
+    }
+
+    static Try<Either<Book, BookInstanceRecord>> parse(String line, CatalogueImport.Format format) {
+        return Try.of(() -> format == CatalogueImport.Format.CSV ? fromCsv(line) : fromJson(line));
+    }
+
+    private static Either<Book, BookInstanceRecord> fromCsv(String line) {
+        List<String> fields = csvFields(line);
+        switch (fields.get(0).trim()) {
+            case "book":
+                expectFields(fields, 4, line);
+                return Either.left(book(fields.get(1), fields.get(2), fields.get(3)));
+            case "instance":
+                expectFields(fields, 3, line);
+                return Either.right(new BookInstanceRecord(new ISBN(fields.get(1)), BookType.valueOf(fields.get(2).trim())));
+            default:
+                throw new IllegalArgumentException("Unknown record type: " + fields.get(0));
+        }
+    }
+
+    private static Either<Book, BookInstanceRecord> fromJson(String line) throws IOException {
+        JsonNode node = JSON.readTree(line);
+        String type = required(node, "type");
+        switch (type) {
+            case "book":
+                return Either.left(book(required(node, "isbn"), required(node, "author"), required(node, "title")));
+            case "instance":
+                return Either.right(new BookInstanceRecord(new ISBN(required(node, "isbn")), BookType.valueOf(required(node, "bookType"))));
+            default:
+                throw new IllegalArgumentException("Unknown record type: " + type);
+        }
+    }
+
+    private static Book book(String isbn, String author, String title) {
+        Book book = Book.newBook(isbn, author, title);
+        expectAtMost(book.getTitle().getTitle(), "Title");
+        expectAtMost(book.getAuthor().getName(), "Author");
+        return book;
+    }
+
+    private static void expectAtMost(String text, String field) {
+        if (text.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException(field + " longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+    }
+
+    private static String required(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || !value.isTextual()) {
+            throw new IllegalArgumentException("Missing " + field);
+        }
+        return value.asText();
+    }
+
+    private static void expectFields(List<String> fields, int expected, String line) {
+        if (fields.size() != expected) {
+            throw new IllegalArgumentException("Expected " + expected + " fields, got " + fields.size() + ": " + line);
+        }
+    }
+
+    private static List<String> csvFields(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote: " + line);
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
+
+@Value
+class BookInstanceRecord {
+
+    @NonNull
+    ISBN bookIsbn;
+    @NonNull
+    BookType bookType;
+}
@@ -3,19 +3,67 @@ package io.pillopl.library.catalogue;
 import lombok.NonNull;
 import lombok.Value;
 
+/**
+ * Only the format is checked on construction, so that books already in the catalogue can always be read.
+ */
 @Value
 class ISBN {
 
-    private static final String VERY_SIMPLE_ISBN_CHECK = "^\\d{9}[\\d|X]$";
-
     @NonNull
     String isbn;
 
     ISBN(String isbn) {
-        if (!isbn.trim().matches(VERY_SIMPLE_ISBN_CHECK)) {
+        String trimmed = isbn.trim();
+        if (!isWellFormed(trimmed)) {
             throw new IllegalArgumentException("Wrong ISBN!");
         }
-        this.isbn = isbn.trim();
+        this.isbn = trimmed;
+    }
+
+    static ISBN withValidChecksum(String isbn) {
+        ISBN checked = new ISBN(isbn);
+        if (!hasValidChecksum(checked.isbn)) {
+            throw new IllegalArgumentException("Wrong ISBN checksum: " + checked.isbn);
+        }
+        return checked;
+    }
+
+    static boolean isWellFormed(CharSequence isbn) {
+        int length = isbn.length();
+        if (length != 10 && length != 13) {
+            return false;
+        }
+        for (int i = 0; i < length - 1; i++) {
+            if (!isDigit(isbn.charAt(i))) {
+                return false;
+            }
+        }
+        char last = isbn.charAt(length - 1);
+        return isDigit(last) || (length == 10 && last == 'X');
+    }
+
+    static boolean hasValidChecksum(CharSequence isbn) {
+        return isbn.length() == 10 ? isbn10Checksum(isbn) % 11 == 0 : isbn13Checksum(isbn) % 10 == 0;
+    }
+
+    private static int isbn10Checksum(CharSequence isbn) {
+        int sum = 0;
+        for (int i = 0; i < 9; i++) {
+            sum += (10 - i) * (isbn.charAt(i) - '0');
+        }
+        char last = isbn.charAt(9);
+        return sum + (last == 'X' ? 10 : last - '0');
+    }
+
+    private static int isbn13Checksum(CharSequence isbn) {
+        int sum = 0;
+        for (int i = 0; i < 13; i++) {
+            sum += (i % 2 == 0 ? 1 : 3) * (isbn.charAt(i) - '0');
+        }
+        return sum;
+    }
 
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 }
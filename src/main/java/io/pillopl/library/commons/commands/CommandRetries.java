@@ -0,0 +1,111 @@
+package io.pillopl.library.commons.commands;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.pillopl.library.commons.aggregates.AggregateRootIsStale;
+import io.vavr.control.Try;
+import lombok.Value;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a command that failed with {@link AggregateRootIsStale}; the command must roll back all its writes when it fails.
+ */
+public class CommandRetries {
+
+    static final String CONFLICTS = "command_conflicts";
+    static final String AGGREGATE_CONFLICTS = "command_aggregate_conflicts";
+    static final String RETRIES = "command_retries";
+    static final String EXHAUSTED = "command_retries_exhausted";
+
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final MeterRegistry meterRegistry;
+    private final Cache<AggregateConflicts, Counter> aggregateConflicts;
+
+    public CommandRetries(int maxAttempts, Duration initialBackoff, Duration maxBackoff, int trackedAggregates, MeterRegistry meterRegistry) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.meterRegistry = meterRegistry;
+        this.aggregateConflicts = Caffeine.newBuilder()
+                .maximumSize(trackedAggregates)
+                .executor(Runnable::run)
+                .<AggregateConflicts, Counter>removalListener((aggregate, counter, cause) -> meterRegistry.remove(counter))
+                .build();
+    }
+
+    public static CommandRetries none() {
+        return new CommandRetries(1, Duration.ZERO, Duration.ZERO, 0, new CompositeMeterRegistry());
+    }
+
+    public <T> Try<T> run(String command, String aggregateType, UUID aggregateId, Supplier<Try<T>> attempt) {
+        Try<T> result = attempt.get();
+        int attempts = 1;
+        while (isConflict(result)) {
+            meterRegistry.counter(CONFLICTS, "command", command).increment();
+            conflictOf(new AggregateConflicts(command, aggregateType, aggregateId)).increment();
+            if (attempts == maxAttempts || TransactionSynchronizationManager.isActualTransactionActive() || !backOff(attempts)) {
+                meterRegistry.counter(EXHAUSTED, "command", command).increment();
+                return result;
+            }
+            meterRegistry.counter(RETRIES, "command", command).increment();
+            result = attempt.get();
+            attempts++;
+        }
+        return result;
+    }
+
+    long backoffNanos(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 30));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    void cleanUp() {
+        aggregateConflicts.cleanUp();
+    }
+
+    private Counter conflictOf(AggregateConflicts aggregate) {
+        return aggregateConflicts.get(aggregate, key -> meterRegistry.counter(AGGREGATE_CONFLICTS,
+                "command", key.command,
+                "aggregate_type", key.aggregateType,
+                "aggregate", key.aggregateId.toString()));
+    }
+
+    private boolean backOff(int attempt) {
+        try {
+            Thread.sleep(backoffNanos(attempt) / 1_000_000);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean isConflict(Try<?> result) {
+        if (result.isSuccess()) {
+            return false;
+        }
+        for (Throwable cause = result.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof AggregateRootIsStale) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Value
+    private static class AggregateConflicts {
+        String command;
+        String aggregateType;
+        UUID aggregateId;
+    }
+}
@@ -0,0 +1,149 @@
+package io.pillopl.library.commons.events.publisher;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.pillopl.library.commons.events.DomainEvent;
+import io.pillopl.library.commons.events.DomainEvents;
+import io.vavr.collection.List;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Forwards events on background threads partitioned by aggregate id, once the publishing transaction commits.
+ */
+@Slf4j
+public class AsyncPartitionedDomainEventPublisher implements DomainEvents, AutoCloseable {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final DomainEvents delegate;
+    private final List<Partition> partitions;
+    private final Timer queueWait;
+    private final Counter failedEvents;
+    private volatile boolean running = true;
+
+    public AsyncPartitionedDomainEventPublisher(DomainEvents delegate, int partitions, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.partitions = List.range(0, partitions).map(i -> new Partition(i, queueCapacity));
+        Gauge.builder("domain_events_async_queue_depth", this, AsyncPartitionedDomainEventPublisher::queueDepth)
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("domain_events_async_queue_wait")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.failedEvents = meterRegistry.counter("domain_events_async_failed");
+        this.partitions.forEach(Partition::start);
+    }
+
+    @Override
+    public void publish(DomainEvent event) {
+        publish(List.of(event));
+    }
+
+    @Override
+    public void publish(List<DomainEvent> events) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    enqueue(events);
+                }
+            });
+        } else {
+            enqueue(events);
+        }
+    }
+
+    private void enqueue(List<DomainEvent> events) {
+        events.forEach(event -> partitionOf(event).enqueue(new QueuedEvent(event, System.nanoTime())));
+    }
+
+    private Partition partitionOf(DomainEvent event) {
+        UUID aggregateId = event.getAggregateId();
+        return partitions.get(aggregateId == null ? 0 : Math.floorMod(aggregateId.hashCode(), partitions.size()));
+    }
+
+    private void dispatch(QueuedEvent queued) {
+        queueWait.record(System.nanoTime() - queued.enqueuedAtNanos, NANOSECONDS);
+        try {
+            delegate.publish(queued.event);
+        } catch (RuntimeException e) {
+            failedEvents.increment();
+            log.error("Forwarding {} of aggregate {} failed", queued.event.getEventId(), queued.event.getAggregateId(), e);
+        }
+    }
+
+    private double queueDepth() {
+        return partitions.map(partition -> partition.queue.size()).sum().doubleValue();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        for (Partition partition : partitions) {
+            partition.worker.join();
+        }
+    }
+
+    private class Partition {
+
+        private final BlockingQueue<QueuedEvent> queue;
+        private final Thread worker;
+
+        Partition(int number, int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.worker = new Thread(this::forwardContinuously, "domain-events-partition-" + number);
+            this.worker.setDaemon(true);
+        }
+
+        void start() {
+            worker.start();
+        }
+
+        void enqueue(QueuedEvent queued) {
+            if (!running) {
+                dispatch(queued);
+                return;
+            }
+            try {
+                queue.put(queued);
+                if (!running && queue.remove(queued)) {
+                    dispatch(queued);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for domain events queue", e);
+            }
+        }
+
+        private void forwardContinuously() {
+            while (running || !queue.isEmpty()) {
+                try {
+                    QueuedEvent queued = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (queued != null) {
+                        dispatch(queued);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Value
+    private static class QueuedEvent {
+        DomainEvent event;
+        long enqueuedAtNanos;
+    }
+}
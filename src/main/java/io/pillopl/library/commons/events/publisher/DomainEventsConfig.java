@@ -2,15 +2,62 @@ package io.pillopl.library.commons.events.publisher;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import io.pillopl.library.commons.events.DomainEvents;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Duration;
 
 @Configuration
 public class DomainEventsConfig {
 
     @Bean
+    @ConditionalOnProperty(name = "domain-events.publisher", havingValue = "just-forward", matchIfMissing = true)
     DomainEvents domainEvents(ApplicationEventPublisher applicationEventPublisher, MeterRegistry meterRegistry) {
         return new MeteredDomainEventPublisher(new JustForwardDomainEventPublisher(applicationEventPublisher), meterRegistry);
     }
+
+    @Bean
+    @ConditionalOnProperty(name = "domain-events.publisher", havingValue = "async")
+    DomainEvents asyncDomainEvents(ApplicationEventPublisher applicationEventPublisher,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${domain-events.async.partitions:4}") int partitions,
+                                   @Value("${domain-events.async.queue-capacity:1000}") int queueCapacity) {
+        return new AsyncPartitionedDomainEventPublisher(
+                new MeteredDomainEventPublisher(new JustForwardDomainEventPublisher(applicationEventPublisher), meterRegistry),
+                partitions,
+                queueCapacity,
+                meterRegistry);
+    }
+
+    @Bean(name = AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME)
+    @ConditionalOnProperty(name = "domain-events.listener-metrics.enabled", havingValue = "true", matchIfMissing = true)
+    ApplicationEventMulticaster applicationEventMulticaster(MeterRegistry meterRegistry) {
+        return new TimedApplicationEventMulticaster(meterRegistry);
+    }
+
+    @Configuration
+    @EnableScheduling
+    @ConditionalOnProperty(name = "domain-events.publisher", havingValue = "store-and-forward")
+    static class StoreAndForwardConfig {
+
+        @Bean
+        DomainEvents storeAndForwardDomainEvents(ApplicationEventPublisher applicationEventPublisher,
+                                                 MeterRegistry meterRegistry,
+                                                 JdbcTemplate jdbcTemplate,
+                                                 @Value("${domain-events.outbox.page-size:500}") int pageSize,
+                                                 @Value("${domain-events.outbox.claim-timeout:30s}") Duration claimTimeout,
+                                                 @Value("${domain-events.outbox.forwarders:4}") int forwarders) {
+            return new StoreAndForwardDomainEventPublisher(
+                    new MeteredDomainEventPublisher(new JustForwardDomainEventPublisher(applicationEventPublisher), meterRegistry),
+                    new JdbcEventsStorage(jdbcTemplate, pageSize, claimTimeout, meterRegistry),
+                    forwarders);
+        }
+    }
 }
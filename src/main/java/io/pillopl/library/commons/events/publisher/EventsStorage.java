@@ -7,6 +7,10 @@ public interface EventsStorage {
 
     void save(DomainEvent event);
 
+    default void save(List<DomainEvent> events) {
+        events.forEach(this::save);
+    }
+
     List<DomainEvent> toPublish();
 
     void published(List<DomainEvent> events);
@@ -0,0 +1,130 @@
+package io.pillopl.library.commons.events.publisher;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.pillopl.library.commons.events.DomainEvent;
+import io.vavr.collection.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static io.pillopl.library.commons.serialization.JavaSerialization.deserialize;
+import static io.pillopl.library.commons.serialization.JavaSerialization.serialize;
+
+/**
+ * Never leases an event while an earlier event of the same aggregate is leased by someone else.
+ */
+public class JdbcEventsStorage implements EventsStorage {
+
+    private static final String INSERT =
+            "INSERT INTO domain_event_outbox (event_id, aggregate_id, occurred_at, stored_at, payload) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String CLAIM =
+            "UPDATE domain_event_outbox o SET o.claimed_by = ?, o.claimed_until = ? WHERE o.id IN (" +
+                    "SELECT e.id FROM domain_event_outbox e " +
+                    "WHERE e.published_at IS NULL " +
+                    "AND (e.claimed_until IS NULL OR e.claimed_until < ?) " +
+                    "AND NOT EXISTS (" +
+                    "SELECT 1 FROM domain_event_outbox p " +
+                    "WHERE p.aggregate_id = e.aggregate_id AND p.published_at IS NULL AND p.id < e.id AND p.claimed_until >= ?) " +
+                    "ORDER BY e.id LIMIT ?) " +
+                    "AND o.published_at IS NULL " +
+                    "AND (o.claimed_until IS NULL OR o.claimed_until < ?) " +
+                    "AND NOT EXISTS (" +
+                    "SELECT 1 FROM domain_event_outbox p " +
+                    "WHERE p.aggregate_id = o.aggregate_id AND p.published_at IS NULL AND p.id < o.id AND p.claimed_until >= ? " +
+                    "AND p.claimed_by <> ?)";
+
+    private static final String SELECT_CLAIMED =
+            "SELECT e.payload FROM domain_event_outbox e WHERE e.claimed_by = ? AND e.published_at IS NULL ORDER BY e.id";
+
+    private static final String MARK_PUBLISHED =
+            "UPDATE domain_event_outbox e SET e.published_at = ?, e.claimed_by = NULL, e.claimed_until = NULL WHERE e.event_id = ?";
+
+    private static final String COUNT_UNPUBLISHED =
+            "SELECT COUNT(*) FROM domain_event_outbox e WHERE e.published_at IS NULL";
+
+    private static final String OLDEST_UNPUBLISHED =
+            "SELECT MIN(e.stored_at) FROM domain_event_outbox e WHERE e.published_at IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int pageSize;
+    private final Duration claimTimeout;
+
+    public JdbcEventsStorage(JdbcTemplate jdbcTemplate, int pageSize, Duration claimTimeout, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pageSize = pageSize;
+        this.claimTimeout = claimTimeout;
+        Gauge.builder("domain_events_outbox_backlog", this, JdbcEventsStorage::backlog)
+                .register(meterRegistry);
+        Gauge.builder("domain_events_outbox_lag", this, JdbcEventsStorage::lagInSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void save(DomainEvent event) {
+        jdbcTemplate.update(INSERT, row(event, Instant.now()));
+    }
+
+    @Override
+    public void save(List<DomainEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Instant storedAt = Instant.now();
+        jdbcTemplate.batchUpdate(INSERT, events.map(event -> row(event, storedAt)).asJava());
+    }
+
+    @Override
+    public List<DomainEvent> toPublish() {
+        UUID claim = UUID.randomUUID();
+        Instant now = Instant.now();
+        int claimed = jdbcTemplate.update(CLAIM,
+                claim,
+                Timestamp.from(now.plus(claimTimeout)),
+                Timestamp.from(now),
+                Timestamp.from(now),
+                pageSize,
+                Timestamp.from(now),
+                Timestamp.from(now),
+                claim);
+        if (claimed == 0) {
+            return List.empty();
+        }
+        return List.ofAll(jdbcTemplate.query(SELECT_CLAIMED, (rs, i) -> deserialize(rs.getBytes(1), DomainEvent.class), claim));
+    }
+
+    @Override
+    public void published(List<DomainEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Timestamp publishedAt = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(MARK_PUBLISHED, events.map(event -> new Object[]{publishedAt, event.getEventId()}).asJava());
+    }
+
+    private double backlog() {
+        return jdbcTemplate.queryForObject(COUNT_UNPUBLISHED, Long.class);
+    }
+
+    private double lagInSeconds() {
+        Timestamp oldest = jdbcTemplate.queryForObject(OLDEST_UNPUBLISHED, Timestamp.class);
+        if (oldest == null) {
+            return 0;
+        }
+        return Math.max(0, Duration.between(oldest.toInstant(), Instant.now()).toMillis() / 1000.0);
+    }
+
+    private static Object[] row(DomainEvent event, Instant storedAt) {
+        return new Object[]{
+                event.getEventId(),
+                event.getAggregateId(),
+                event.getWhen() == null ? null : Timestamp.from(event.getWhen()),
+                Timestamp.from(storedAt),
+                serialize(event)};
+    }
+}
@@ -3,27 +3,104 @@ package io.pillopl.library.commons.events.publisher;
 import io.pillopl.library.commons.events.DomainEvent;
 import io.pillopl.library.commons.events.DomainEvents;
 import io.vavr.collection.List;
-import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-@AllArgsConstructor
-public class StoreAndForwardDomainEventPublisher implements DomainEvents {
+/**
+ * Stores events and forwards them periodically; events of one aggregate are forwarded in order by a single thread.
+ */
+@Slf4j
+public class StoreAndForwardDomainEventPublisher implements DomainEvents, AutoCloseable {
 
     private final DomainEvents eventsPublisher;
     private final EventsStorage eventsStorage;
+    private final int forwarders;
+    private final ExecutorService forwardingPool;
+
+    public StoreAndForwardDomainEventPublisher(DomainEvents eventsPublisher, EventsStorage eventsStorage) {
+        this(eventsPublisher, eventsStorage, 1);
+    }
+
+    public StoreAndForwardDomainEventPublisher(DomainEvents eventsPublisher, EventsStorage eventsStorage, int forwarders) {
+        this.eventsPublisher = eventsPublisher;
+        this.eventsStorage = eventsStorage;
+        this.forwarders = forwarders;
+        AtomicInteger threads = new AtomicInteger();
+        this.forwardingPool = Executors.newFixedThreadPool(forwarders, runnable -> {
+            Thread thread = new Thread(runnable, "domain-events-forwarder-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
     @Override
     public void publish(DomainEvent event) {
         eventsStorage.save(event);
     }
 
+    @Override
+    public void publish(List<DomainEvent> events) {
+        eventsStorage.save(events);
+    }
+
     @Scheduled(fixedRate = 3000L)
-    @Transactional
     public void publishAllPeriodically() {
-        List<DomainEvent> domainEvents = eventsStorage.toPublish();
-        domainEvents.forEach(eventsPublisher::publish);
-        eventsStorage.published(domainEvents);
+        List<DomainEvent> page = eventsStorage.toPublish();
+        while (!page.isEmpty()) {
+            List<DomainEvent> forwarded = forward(page);
+            eventsStorage.published(forwarded);
+            if (forwarded.size() < page.size()) {
+                return;
+            }
+            page = eventsStorage.toPublish();
+        }
+    }
+
+    private List<DomainEvent> forward(List<DomainEvent> page) {
+        List<CompletableFuture<List<DomainEvent>>> partitions = page
+                .groupBy(this::partitionOf)
+                .values()
+                .map(partition -> CompletableFuture.supplyAsync(() -> forwardInOrder(partition), forwardingPool))
+                .toList();
+        return partitions.flatMap(CompletableFuture::join);
+    }
+
+    private int partitionOf(DomainEvent event) {
+        UUID aggregateId = event.getAggregateId();
+        return aggregateId == null ? 0 : Math.floorMod(aggregateId.hashCode(), forwarders);
+    }
+
+    private List<DomainEvent> forwardInOrder(List<DomainEvent> partition) {
+        Set<UUID> failedAggregates = new HashSet<>();
+        java.util.List<DomainEvent> forwarded = new ArrayList<>(partition.size());
+        for (DomainEvent event : partition) {
+            if (failedAggregates.contains(event.getAggregateId())) {
+                continue;
+            }
+            try {
+                eventsPublisher.publish(event);
+                forwarded.add(event);
+            } catch (RuntimeException e) {
+                log.error("Forwarding {} failed, holding back later events of aggregate {}", event.getEventId(), event.getAggregateId(), e);
+                failedAggregates.add(event.getAggregateId());
+            }
+        }
+        return List.ofAll(forwarded);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        forwardingPool.shutdown();
+        forwardingPool.awaitTermination(30, TimeUnit.SECONDS);
     }
 }
@@ -0,0 +1,75 @@
+package io.pillopl.library.commons.events.publisher;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.pillopl.library.commons.events.DomainEvent;
+import lombok.Value;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.ApplicationListenerMethodAdapter;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every listener invocation for a {@link DomainEvent}, tagged with the listener and the event type.
+ */
+class TimedApplicationEventMulticaster extends SimpleApplicationEventMulticaster {
+
+    private static final String DOMAIN_EVENT_LISTENER = "domain_event_listener";
+    private static final Field METHOD = adapterField("method");
+
+    private final MeterRegistry meterRegistry;
+    private final Map<ListenerInvocation, Timer> timers = new ConcurrentHashMap<>();
+
+    TimedApplicationEventMulticaster(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void invokeListener(ApplicationListener<?> listener, ApplicationEvent event) {
+        if (!(event instanceof PayloadApplicationEvent) || !(((PayloadApplicationEvent<?>) event).getPayload() instanceof DomainEvent)) {
+            super.invokeListener(listener, event);
+            return;
+        }
+        Class<?> eventType = ((PayloadApplicationEvent<?>) event).getPayload().getClass();
+        timers.computeIfAbsent(new ListenerInvocation(listener, eventType), this::timerFor)
+                .record(() -> super.invokeListener(listener, event));
+    }
+
+    private Timer timerFor(ListenerInvocation invocation) {
+        return Timer.builder(DOMAIN_EVENT_LISTENER)
+                .tag("listener", nameOf(invocation.listener))
+                .tag("event", invocation.eventType.getSimpleName())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    static String nameOf(ApplicationListener<?> listener) {
+        if (listener instanceof ApplicationListenerMethodAdapter && METHOD != null) {
+            Method method = (Method) ReflectionUtils.getField(METHOD, listener);
+            return ClassUtils.getUserClass(method.getDeclaringClass()).getSimpleName() + "." + method.getName();
+        }
+        return ClassUtils.getUserClass(listener).getSimpleName();
+    }
+
+    private static Field adapterField(String name) {
+        Field field = ReflectionUtils.findField(ApplicationListenerMethodAdapter.class, name);
+        if (field != null) {
+            ReflectionUtils.makeAccessible(field);
+        }
+        return field;
+    }
+
+    @Value
+    private static class ListenerInvocation {
+        ApplicationListener<?> listener;
+        Class<?> eventType;
+    }
+}
@@ -0,0 +1,104 @@
+package io.pillopl.library.commons.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lets at most {@code maxConcurrent} connections be open at once; a caller waiting longer than {@code acquireTimeout} fails.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final Duration acquireTimeout;
+    private final Timer acquiring;
+    private final Counter rejected;
+
+    public BulkheadDataSource(DataSource dataSource, int maxConcurrent, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        super(dataSource);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeout = acquireTimeout;
+        this.acquiring = meterRegistry.timer("jdbc_bulkhead_acquire");
+        this.rejected = meterRegistry.counter("jdbc_bulkhead_rejected");
+        Gauge.builder("jdbc_bulkhead_in_use", permits, available -> maxConcurrent - available.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("jdbc_bulkhead_waiting", permits, Semaphore::getQueueLength)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return released(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return released(() -> super.getConnection(username, password));
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            boolean acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            acquiring.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                rejected.increment();
+                throw new SQLTransientConnectionException("All " + maxConcurrent + " connections are in use, waited " + acquireTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    private Connection released(ConnectionSupplier connectionSupplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = connectionSupplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                        try {
+                            connection.close();
+                        } finally {
+                            permits.release();
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,97 @@
+package io.pillopl.library.commons.jdbc;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Creates the database of one bounded context, with {@code {context}} in {@code url} replaced by the context name.
+ */
+public class DataSources {
+
+    public static final String EMBEDDED = "embedded";
+    private static final String CONTEXT = "{context}";
+
+    private final Settings settings;
+    private final MeterRegistry meterRegistry;
+
+    public DataSources(Settings settings, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public DataSource create(String context, String... scripts) {
+        if (EMBEDDED.equals(settings.url) && !settings.pooled) {
+            return embedded(scripts);
+        }
+        String url = urlOf(context);
+        DataSource database = settings.pooled ? pooled(context, url) : new DriverManagerDataSource(url, settings.username, settings.password);
+        ResourceDatabasePopulator schema = new ResourceDatabasePopulator();
+        Stream.of(scripts).map(ClassPathResource::new).forEach(schema::addScript);
+        DatabasePopulatorUtils.execute(schema, database);
+        return database;
+    }
+
+    private DataSource embedded(String... scripts) {
+        EmbeddedDatabaseBuilder database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2);
+        Stream.of(scripts).forEach(database::addScript);
+        return database.build();
+    }
+
+    private String urlOf(String context) {
+        String url = EMBEDDED.equals(settings.url) ?
+                "jdbc:h2:mem:" + context + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1" :
+                settings.url.replace(CONTEXT, context);
+        if (url.startsWith("jdbc:h2:") && settings.statementCacheSize > 0) {
+            url += ";QUERY_CACHE_SIZE=" + settings.statementCacheSize;
+        }
+        return url;
+    }
+
+    private DataSource pooled(String context, String url) {
+        HikariConfig pool = new HikariConfig();
+        pool.setPoolName(context);
+        pool.setJdbcUrl(url);
+        pool.setUsername(settings.username);
+        pool.setPassword(settings.password);
+        pool.setMaximumPoolSize(settings.maximumPoolSize);
+        pool.setMinimumIdle(settings.minimumIdle);
+        pool.setConnectionTimeout(settings.connectionTimeout.toMillis());
+        pool.setIdleTimeout(settings.idleTimeout.toMillis());
+        pool.setMaxLifetime(settings.maxLifetime.toMillis());
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(pool);
+    }
+
+    @Value
+    public static class Settings {
+        String url;
+        String username;
+        String password;
+        /**
+         * Prepared statements cached per connection by H2, applied to H2 urls only.
+         */
+        int statementCacheSize;
+        boolean pooled;
+        int maximumPoolSize;
+        int minimumIdle;
+        Duration connectionTimeout;
+        Duration idleTimeout;
+        Duration maxLifetime;
+    }
+}
@@ -0,0 +1,29 @@
+package io.pillopl.library.commons.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class DataSourcesConfig {
+
+    @Bean
+    DataSources dataSources(MeterRegistry meterRegistry,
+                            @Value("${database.url:embedded}") String url,
+                            @Value("${database.username:sa}") String username,
+                            @Value("${database.password:}") String password,
+                            @Value("${database.statement-cache-size:0}") int statementCacheSize,
+                            @Value("${database.pool.enabled:false}") boolean pooled,
+                            @Value("${database.pool.maximum-size:10}") int maximumPoolSize,
+                            @Value("${database.pool.minimum-idle:10}") int minimumIdle,
+                            @Value("${database.pool.connection-timeout:2s}") Duration connectionTimeout,
+                            @Value("${database.pool.idle-timeout:10m}") Duration idleTimeout,
+                            @Value("${database.pool.max-lifetime:30m}") Duration maxLifetime) {
+        return new DataSources(
+                new DataSources.Settings(url, username, password, statementCacheSize, pooled, maximumPoolSize, minimumIdle, connectionTimeout, idleTimeout, maxLifetime),
+                meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package io.pillopl.library.commons.jdbc;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Hands out ids of blocks reserved by a sequence created with {@code INCREMENT BY blockSize}; ids are not contiguous.
+ */
+public class PooledSequence {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextValue;
+    private final int blockSize;
+    private long next;
+    private long blockEnd;
+
+    public PooledSequence(JdbcTemplate jdbcTemplate, String sequence, int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextValue = "SELECT " + sequence + ".nextval";
+        this.blockSize = blockSize;
+    }
+
+    public synchronized long next() {
+        if (next == blockEnd) {
+            next = jdbcTemplate.queryForObject(nextValue, Long.class);
+            blockEnd = next + blockSize;
+        }
+        return next++;
+    }
+}
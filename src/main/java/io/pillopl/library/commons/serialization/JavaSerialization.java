@@ -0,0 +1,37 @@
+package io.pillopl.library.commons.serialization;
+
+import org.springframework.core.ConfigurableObjectInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * Resolves classes with the application class loader, which also works from a packaged jar.
+ */
+public final class JavaSerialization {
+
+    private JavaSerialization() {
+    }
+
+    public static byte[] serialize(Serializable object) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize " + object.getClass().getName(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static <T> T deserialize(byte[] bytes, Class<T> type) {
+        try (ObjectInputStream in = new ConfigurableObjectInputStream(new ByteArrayInputStream(bytes), JavaSerialization.class.getClassLoader())) {
+            return type.cast(in.readObject());
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Cannot deserialize " + type.getName(), e);
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @Configuration
 @EnableScheduling
 @Import({LendingDatabaseConfig.class,
+        LendingWebExecutionConfig.class,
         WebConfiguration.class,
         PatronProfileConfiguration.class,
         PatronConfiguration.class,
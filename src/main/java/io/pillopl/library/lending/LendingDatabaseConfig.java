@@ -1,7 +1,11 @@
 package io.pillopl.library.lending;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.pillopl.library.catalogue.BookId;
 import io.pillopl.library.commons.aggregates.Version;
+import io.pillopl.library.commons.jdbc.BulkheadDataSource;
+import io.pillopl.library.commons.jdbc.DataSources;
+import io.pillopl.library.commons.jdbc.DataSourcesConfig;
 import io.pillopl.library.lending.book.model.AvailableBook;
 import io.pillopl.library.lending.book.model.BookInformation;
 import io.pillopl.library.lending.book.model.BookRepository;
@@ -9,20 +13,21 @@ import io.pillopl.library.lending.librarybranch.model.LibraryBranchId;
 import io.pillopl.library.lending.patron.model.PatronEvent.PatronCreated;
 import io.pillopl.library.lending.patron.model.PatronId;
 import io.pillopl.library.lending.patron.model.Patrons;
+import java.time.Duration;
 import java.util.UUID;
 import javax.sql.DataSource;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.jdbc.repository.config.AbstractJdbcConfiguration;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
-import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
-import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
 import org.springframework.transaction.PlatformTransactionManager;
 
 
@@ -30,33 +35,43 @@ import static io.pillopl.library.catalogue.BookType.Circulating;
 import static io.pillopl.library.lending.patron.model.PatronType.Regular;
 
 @Configuration
+@Import(DataSourcesConfig.class)
 @Slf4j
 class LendingDatabaseConfig extends AbstractJdbcConfiguration {
 
     @Bean
-    JdbcTemplate jdbcTemplate() {
-        return new JdbcTemplate(dataSource());
+    JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
     }
 
     @Bean
-    NamedParameterJdbcOperations operations() {
-        return new NamedParameterJdbcTemplate(dataSource());
+    NamedParameterJdbcOperations operations(DataSource dataSource) {
+        return new NamedParameterJdbcTemplate(dataSource);
     }
 
     @Bean
-    PlatformTransactionManager transactionManager() {
-        return new DataSourceTransactionManager(dataSource());
+    PlatformTransactionManager transactionManager(DataSource dataSource) {
+        return new DataSourceTransactionManager(dataSource);
     }
 
     @Bean
-    DataSource dataSource() {
-        return new EmbeddedDatabaseBuilder()
-                .generateUniqueName(true)
-                .setType(EmbeddedDatabaseType.H2)
-                .addScript("create_patron_db.sql")
-                .addScript("create_lending_book_db.sql")
-                .addScript("create_sheets_db.sql")
-                .build();
+    DataSource dataSource(DataSources dataSources,
+                          MeterRegistry meterRegistry,
+                          @Value("${lending.jdbc.bulkhead.enabled:false}") boolean bulkheadEnabled,
+                          @Value("${lending.jdbc.bulkhead.max-concurrent:20}") int maxConcurrent,
+                          @Value("${lending.jdbc.bulkhead.acquire-timeout:1s}") Duration acquireTimeout) {
+        DataSource database = dataSources.create("lending",
+                "create_patron_db.sql",
+                "create_patron_event_store_db.sql",
+                "create_lending_book_db.sql",
+                "create_sheets_db.sql",
+                "create_sheets_indexes.sql",
+                "create_daily_sheet_jobs_db.sql",
+                "create_domain_events_outbox.sql");
+        if (bulkheadEnabled) {
+            return new BulkheadDataSource(database, maxConcurrent, acquireTimeout, meterRegistry);
+        }
+        return database;
     }
 
     @Profile("local")
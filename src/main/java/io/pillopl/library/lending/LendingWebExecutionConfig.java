@@ -0,0 +1,48 @@
+package io.pillopl.library.lending;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread per request; the database is protected by the JDBC bulkhead rather than by the request pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "lending.web.execution", havingValue = "elastic")
+class LendingWebExecutionConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService elasticRequestExecutor(MeterRegistry meterRegistry,
+                                           @Value("${lending.web.elastic.max-threads:2000}") int maxThreads,
+                                           @Value("${lending.web.elastic.thread-stack-size:256KB}") DataSize stackSize) {
+        AtomicInteger threads = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                0,
+                maxThreads,
+                30, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(null, runnable, "lending-request-" + threads.incrementAndGet(), stackSize.toBytes());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "lending_requests", Collections.emptyList());
+    }
+
+    @Bean
+    TomcatConnectorCustomizer elasticRequestExecution(ExecutorService elasticRequestExecutor) {
+        return connector -> connector.getProtocolHandler().setExecutor(elasticRequestExecutor);
+    }
+}
@@ -2,8 +2,10 @@ package io.pillopl.library.lending.book.application;
 
 import io.pillopl.library.catalogue.BookId;
 import io.pillopl.library.catalogue.BookInstanceAddedToCatalogue;
+import io.pillopl.library.catalogue.BookInstancesAddedToCatalogue;
 import io.pillopl.library.commons.aggregates.Version;
 import io.pillopl.library.lending.book.model.AvailableBook;
+import io.pillopl.library.lending.book.model.Book;
 import io.pillopl.library.lending.book.model.BookRepository;
 import io.pillopl.library.lending.librarybranch.model.LibraryBranchId;
 import lombok.AllArgsConstructor;
@@ -18,7 +20,16 @@ public class CreateAvailableBookOnInstanceAddedEventHandler {
 
     @EventListener
     void handle(BookInstanceAddedToCatalogue event) {
-        bookRepository.save(new AvailableBook(new BookId(event.getBookId()), event.getType(), ourLibraryBranch(), Version.zero()));
+        bookRepository.save(availableBook(event));
+    }
+
+    @EventListener
+    void handle(BookInstancesAddedToCatalogue event) {
+        bookRepository.saveAll(event.getInstances().<Book>map(this::availableBook));
+    }
+
+    private AvailableBook availableBook(BookInstanceAddedToCatalogue event) {
+        return new AvailableBook(new BookId(event.getBookId()), event.getType(), ourLibraryBranch(), Version.zero());
     }
 
     private LibraryBranchId ourLibraryBranch() {
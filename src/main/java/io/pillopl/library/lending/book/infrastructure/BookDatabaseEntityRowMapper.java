@@ -0,0 +1,41 @@
+package io.pillopl.library.lending.book.infrastructure;
+
+import io.pillopl.library.catalogue.BookType;
+import io.pillopl.library.lending.book.infrastructure.BookDatabaseEntity.BookState;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Reads columns by index, so it must be used with {@link #COLUMNS}.
+ */
+class BookDatabaseEntityRowMapper implements RowMapper<BookDatabaseEntity> {
+
+    static final String COLUMNS = "b.book_id, b.book_type, b.book_state, b.available_at_branch, b.on_hold_at_branch, " +
+            "b.on_hold_by_patron, b.on_hold_till, b.checked_out_at_branch, b.checked_out_by_patron, b.version";
+
+    static final BookDatabaseEntityRowMapper INSTANCE = new BookDatabaseEntityRowMapper();
+
+    private BookDatabaseEntityRowMapper() {
+    }
+
+    @Override
+    public BookDatabaseEntity mapRow(ResultSet rs, int rowNum) throws SQLException {
+        BookDatabaseEntity entity = new BookDatabaseEntity();
+        entity.book_id = (UUID) rs.getObject(1);
+        entity.book_type = BookType.valueOf(rs.getString(2));
+        entity.book_state = BookState.valueOf(rs.getString(3));
+        entity.available_at_branch = (UUID) rs.getObject(4);
+        entity.on_hold_at_branch = (UUID) rs.getObject(5);
+        entity.on_hold_by_patron = (UUID) rs.getObject(6);
+        Timestamp onHoldTill = rs.getTimestamp(7);
+        entity.on_hold_till = onHoldTill == null ? null : onHoldTill.toInstant();
+        entity.checked_out_at_branch = (UUID) rs.getObject(8);
+        entity.checked_out_by_patron = (UUID) rs.getObject(9);
+        entity.version = rs.getInt(10);
+        return entity;
+    }
+}
@@ -3,15 +3,19 @@ package io.pillopl.library.lending.book.infrastructure;
 import io.pillopl.library.catalogue.BookId;
 import io.pillopl.library.catalogue.BookType;
 import io.pillopl.library.commons.aggregates.AggregateRootIsStale;
+import io.pillopl.library.commons.jdbc.PooledSequence;
 import io.pillopl.library.lending.book.model.*;
 import io.pillopl.library.lending.patron.application.hold.FindAvailableBook;
 import io.pillopl.library.lending.patron.application.hold.FindBookOnHold;
 import io.pillopl.library.lending.patron.model.PatronId;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.List;
+import io.vavr.collection.Set;
 import io.vavr.control.Option;
 import io.vavr.control.Try;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.Instant;
@@ -27,7 +31,32 @@ import static io.vavr.control.Option.of;
 @AllArgsConstructor(access = AccessLevel.PACKAGE)
 class BookDatabaseRepository implements BookRepository, FindAvailableBook, FindBookOnHold {
 
+    /**
+     * Has to match {@code INCREMENT BY} of book_database_entity_seq.
+     */
+    static final int ID_BLOCK_SIZE = 50;
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT = "INSERT INTO book_database_entity " +
+            "(id, " +
+            "book_id, " +
+            "book_type, " +
+            "book_state, " +
+            "available_at_branch," +
+            "on_hold_at_branch, " +
+            "on_hold_by_patron, " +
+            "on_hold_till, " +
+            "checked_out_at_branch, " +
+            "checked_out_by_patron, " +
+            "version) VALUES " +
+            "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
     private final JdbcTemplate jdbcTemplate;
+    private final PooledSequence ids;
+
+    BookDatabaseRepository(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, new PooledSequence(jdbcTemplate, "book_database_entity_seq", ID_BLOCK_SIZE));
+    }
 
     @Override
     public Option<Book> findBy(BookId bookId) {
@@ -37,27 +66,64 @@ class BookDatabaseRepository implements BookRepository, FindAvailableBook, FindB
 
     private Option<BookDatabaseEntity> findBookById(BookId bookId) {
         return Try
-                .ofSupplier(() -> of(jdbcTemplate.queryForObject("SELECT b.* FROM book_database_entity b WHERE b.book_id = ?", new BeanPropertyRowMapper<>(BookDatabaseEntity.class), bookId.getBookId())))
+                .ofSupplier(() -> of(jdbcTemplate.queryForObject("SELECT " + BookDatabaseEntityRowMapper.COLUMNS + " FROM book_database_entity b WHERE b.book_id = ?", BookDatabaseEntityRowMapper.INSTANCE, bookId.getBookId())))
                 .getOrElse(none());
     }
 
+    /**
+     * An insert clashing on book_id means the row exists with a different version.
+     */
     @Override
     public void save(Book book) {
-        findBy(book.bookId())
-                .map(entity -> updateOptimistically(book))
-                .onEmpty(() -> insertNew(book));
+        if (updateOptimistically(book) == 0) {
+            insertNewOrFailAsStale(book);
+        }
+    }
+
+    /**
+     * Only books not persisted yet are batched; persisted ones are saved one by one.
+     */
+    @Override
+    public void saveAll(List<Book> books) {
+        books.grouped(BATCH_SIZE).forEach(batch -> {
+            Set<UUID> persisted = persistedAmong(batch);
+            batch.filter(book -> persisted.contains(book.bookId().getBookId())).forEach(this::save);
+            insertNewOrFailAsStale(batch.filter(book -> !persisted.contains(book.bookId().getBookId())));
+        });
+    }
+
+    private Set<UUID> persistedAmong(List<Book> books) {
+        return HashSet.ofAll(jdbcTemplate.queryForList(
+                "SELECT b.book_id FROM book_database_entity b WHERE b.book_id IN (" + books.map(book -> "?").mkString(", ") + ")",
+                UUID.class,
+                books.map(book -> book.bookId().getBookId()).toJavaArray()));
+    }
+
+    private void insertNewOrFailAsStale(List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT, books.map(this::insertRow).asJava());
+        } catch (DuplicateKeyException e) {
+            throw new AggregateRootIsStale("Someone has inserted some of " + books.size() + " books in the meantime");
+        }
     }
 
     private int updateOptimistically(Book book) {
-        int result = Match(book).of(
+        return Match(book).of(
                 Case($(instanceOf(AvailableBook.class)), this::update),
                 Case($(instanceOf(BookOnHold.class)), this::update),
                 Case($(instanceOf(CheckedOutBook.class)), this::update)
         );
-        if (result == 0) {
+    }
+
+    private void insertNewOrFailAsStale(Book book) {
+        try {
+            insertNew(book);
+        } catch (DuplicateKeyException e) {
             throw new AggregateRootIsStale("Someone has updated book in the meantime, book: " + book);
         }
-        return result;
     }
 
     private int update(AvailableBook availableBook) {
@@ -91,42 +157,33 @@ class BookDatabaseRepository implements BookRepository, FindAvailableBook, FindB
     }
 
     private void insertNew(Book book) {
-        Match(book).of(
-                Case($(instanceOf(AvailableBook.class)), this::insert),
-                Case($(instanceOf(BookOnHold.class)), this::insert),
-                Case($(instanceOf(CheckedOutBook.class)), this::insert)
+        jdbcTemplate.update(INSERT, insertRow(book));
+    }
+
+    private Object[] insertRow(Book book) {
+        return Match(book).of(
+                Case($(instanceOf(AvailableBook.class)), this::insertRow),
+                Case($(instanceOf(BookOnHold.class)), this::insertRow),
+                Case($(instanceOf(CheckedOutBook.class)), this::insertRow)
         );
     }
 
-    private int insert(AvailableBook availableBook) {
-        return insert(availableBook.getBookId(), availableBook.type(), Available, availableBook.getLibraryBranch().getLibraryBranchId(), null, null, null, null, null);
+    private Object[] insertRow(AvailableBook availableBook) {
+        return insertRow(availableBook.getBookId(), availableBook.type(), Available, availableBook.getLibraryBranch().getLibraryBranchId(), null, null, null, null, null);
     }
 
-    private int insert(BookOnHold bookOnHold) {
-        return insert(bookOnHold.getBookId(), bookOnHold.type(), OnHold, null, bookOnHold.getHoldPlacedAt().getLibraryBranchId(), bookOnHold.getByPatron().getPatronId(), bookOnHold.getHoldTill(), null, null);
+    private Object[] insertRow(BookOnHold bookOnHold) {
+        return insertRow(bookOnHold.getBookId(), bookOnHold.type(), OnHold, null, bookOnHold.getHoldPlacedAt().getLibraryBranchId(), bookOnHold.getByPatron().getPatronId(), bookOnHold.getHoldTill(), null, null);
 
     }
 
-    private int insert(CheckedOutBook checkedoutBook) {
-        return insert(checkedoutBook.getBookId(), checkedoutBook.type(), CheckedOut, null, null, null, null, checkedoutBook.getCheckedOutAt().getLibraryBranchId(), checkedoutBook.getByPatron().getPatronId());
+    private Object[] insertRow(CheckedOutBook checkedoutBook) {
+        return insertRow(checkedoutBook.getBookId(), checkedoutBook.type(), CheckedOut, null, null, null, null, checkedoutBook.getCheckedOutAt().getLibraryBranchId(), checkedoutBook.getByPatron().getPatronId());
 
     }
 
-    private int insert(BookId bookId, BookType bookType, BookDatabaseEntity.BookState state, UUID availableAt, UUID onHoldAt, UUID onHoldBy, Instant onHoldTill, UUID checkedOutAt, UUID checkedOutBy) {
-        return jdbcTemplate.update("INSERT INTO book_database_entity " +
-                        "(id, " +
-                        "book_id, " +
-                        "book_type, " +
-                        "book_state, " +
-                        "available_at_branch," +
-                        "on_hold_at_branch, " +
-                        "on_hold_by_patron, " +
-                        "on_hold_till, " +
-                        "checked_out_at_branch, " +
-                        "checked_out_by_patron, " +
-                        "version) VALUES " +
-                        "(book_database_entity_seq.nextval, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
-                bookId.getBookId(), bookType.toString(), state.toString(), availableAt, onHoldAt, onHoldBy, onHoldTill, checkedOutAt, checkedOutBy);
+    private Object[] insertRow(BookId bookId, BookType bookType, BookDatabaseEntity.BookState state, UUID availableAt, UUID onHoldAt, UUID onHoldBy, Instant onHoldTill, UUID checkedOutAt, UUID checkedOutBy) {
+        return new Object[]{ids.next(), bookId.getBookId(), bookType.toString(), state.toString(), availableAt, onHoldAt, onHoldBy, onHoldTill, checkedOutAt, checkedOutBy};
     }
 
     @Override
@@ -1,6 +1,7 @@
 package io.pillopl.library.lending.book.model;
 
 import io.pillopl.library.catalogue.BookId;
+import io.vavr.collection.List;
 import io.vavr.control.Option;
 
 public interface BookRepository {
@@ -8,4 +9,8 @@ public interface BookRepository {
     Option<Book> findBy(BookId bookId);
 
     void save(Book book);
+
+    default void saveAll(List<Book> books) {
+        books.forEach(this::save);
+    }
 }
@@ -1,17 +1,37 @@
 package io.pillopl.library.lending.dailysheet.infrastructure;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.pillopl.library.lending.dailysheet.model.DailySheet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.Clock;
+import java.time.Duration;
 
 @Configuration
 public class DailySheetConfiguration {
 
     @Bean
+    @ConditionalOnProperty(name = "lending.daily-sheet.projection", havingValue = "sync", matchIfMissing = true)
     DailySheet sheetsReadModel(JdbcTemplate jdbcTemplate) {
         return new SheetsReadModel(jdbcTemplate, Clock.systemDefaultZone());
     }
+
+    @Bean
+    @ConditionalOnProperty(name = "lending.daily-sheet.projection", havingValue = "write-behind")
+    DailySheet writeBehindSheetsReadModel(JdbcTemplate jdbcTemplate,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${lending.daily-sheet.write-behind.queue-capacity:10000}") int queueCapacity,
+                                          @Value("${lending.daily-sheet.write-behind.batch-size:500}") int batchSize,
+                                          @Value("${lending.daily-sheet.write-behind.max-delay:200ms}") Duration maxDelay) {
+        return new WriteBehindSheetsReadModel(
+                new SheetsReadModel(jdbcTemplate, Clock.systemDefaultZone()),
+                queueCapacity,
+                batchSize,
+                maxDelay,
+                meterRegistry);
+    }
 }
@@ -6,6 +6,7 @@ import io.pillopl.library.lending.dailysheet.model.DailySheet;
 import io.pillopl.library.lending.dailysheet.model.ExpiredHold;
 import io.pillopl.library.lending.dailysheet.model.HoldsToExpireSheet;
 import io.pillopl.library.lending.dailysheet.model.OverdueCheckout;
+import io.pillopl.library.lending.dailysheet.model.SheetShard;
 import io.pillopl.library.lending.librarybranch.model.LibraryBranchId;
 import io.pillopl.library.lending.patron.model.PatronEvent.BookCheckedOut;
 import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldCanceled;
@@ -13,76 +14,132 @@ import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldExpired;
 import io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHold;
 import io.pillopl.library.lending.patron.model.PatronEvent.BookReturned;
 import io.pillopl.library.lending.patron.model.PatronId;
+import io.pillopl.library.lending.dailysheet.infrastructure.SheetsUpdates.HoldCompletion;
+import io.pillopl.library.lending.dailysheet.infrastructure.SheetsUpdates.HoldCompletionType;
+import io.pillopl.library.lending.dailysheet.infrastructure.SheetsUpdates.NewCheckout;
+import io.pillopl.library.lending.dailysheet.infrastructure.SheetsUpdates.NewHold;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.List;
 import io.vavr.control.Option;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import org.springframework.context.event.EventListener;
 import org.springframework.dao.DuplicateKeyException;
-import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Clock;
 import java.time.Instant;
-import java.util.List;
-import java.util.Map;
+import java.util.ArrayList;
 import java.util.UUID;
 
-import static io.vavr.collection.List.ofAll;
 import static java.sql.Timestamp.from;
-import static java.util.stream.Collectors.toList;
 
 @AllArgsConstructor(access = AccessLevel.PACKAGE)
 class SheetsReadModel implements DailySheet {
 
+    private static final int SHEET_PAGE_SIZE = 500;
+
+    private static final String HOLDS_TO_EXPIRE = "SELECT h.book_id, h.hold_by_patron_id, h.hold_at_branch FROM holds_sheet h WHERE h.status = 'ACTIVE' and h.hold_till <= ?";
+    private static final String CHECKOUTS_TO_OVERDUE = "SELECT c.book_id, c.checked_out_by_patron_id, c.checked_out_at_branch FROM checkouts_sheet c WHERE c.status = 'CHECKEDOUT' and c.checkout_till <= ?";
+    private static final String IN_SHARD = " AND ORA_HASH(%1$s, ?) = ?";
+    private static final String RESUMED_AFTER = " AND %1$s > ?";
+    private static final String AFTER_ROW = " AND (%1$s > ? OR (%1$s = ? AND %2$s > ?))";
+    private static final String PAGE_ORDERED_BY = " ORDER BY %1$s, %2$s LIMIT ?";
+
+    private static final String INSERT_HOLD = "INSERT INTO holds_sheet " +
+            "(id, book_id, status, hold_event_id, hold_by_patron_id, hold_at, hold_till, expired_at, canceled_at, hold_at_branch, checked_out_at) VALUES " +
+            "(holds_sheet_seq.nextval, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String CANCEL_HOLD = "UPDATE holds_sheet SET canceled_at = ?, status = 'CANCELED' WHERE canceled_at IS NULL AND book_id = ? AND hold_by_patron_id = ?";
+    private static final String EXPIRE_HOLD = "UPDATE holds_sheet SET expired_at = ?, status = 'EXPIRED' WHERE expired_at IS NULL AND book_id = ? AND hold_by_patron_id = ?";
+    private static final String CHECK_OUT_HOLD = "UPDATE holds_sheet SET checked_out_at = ?, status = 'CHECKEDOUT' WHERE checked_out_at IS NULL AND book_id = ? AND hold_by_patron_id = ?";
+    private static final String INSERT_CHECKOUT = "INSERT INTO checkouts_sheet " +
+            "(id, book_id, status, checkout_event_id, checked_out_by_patron_id, checked_out_at, checkout_till, checked_out_at_branch, returned_at) VALUES " +
+            "(checkouts_sheet_seq.nextval, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String RETURN_CHECKOUT = "UPDATE checkouts_sheet SET returned_at = ?, status = 'RETURNED' WHERE returned_at IS NULL AND book_id = ? AND checked_out_by_patron_id = ?";
+    private static final String INSERT_RETURNED_CHECKOUT = "INSERT INTO checkouts_sheet " +
+            "(id, book_id, status, checkout_event_id, checked_out_by_patron_id, checked_out_at, checkout_till, returned_at) VALUES " +
+            "(checkouts_sheet_seq.nextval, ?, ?, ?, ?, null, null, ?)";
+
     private final JdbcTemplate sheets;
     private final Clock clock;
 
     @Override
     public HoldsToExpireSheet queryForHoldsToExpireSheet() {
-        return new HoldsToExpireSheet(ofAll(
-                findHoldsToExpire()
-                        .stream()
-                        .map(this::toExpiredHold)
-                        .collect(toList())));
+        return holdsToExpire(Option.none());
     }
 
-    private List<Map<String, Object>> findHoldsToExpire() {
-        return sheets.query(
-                "SELECT h.book_id, h.hold_by_patron_id, h.hold_at_branch FROM holds_sheet h WHERE h.status = 'ACTIVE' and h.hold_till <= ?",
-                new Object[]{from(Instant.now(clock))},
-                new ColumnMapRowMapper());
+    @Override
+    public CheckoutsToOverdueSheet queryForCheckoutsToOverdue() {
+        return checkoutsToOverdue(Option.none());
     }
 
-    private ExpiredHold toExpiredHold(Map<String, Object> map) {
-        return new ExpiredHold(
-                new BookId((UUID) map.get("BOOK_ID")),
-                new PatronId((UUID) map.get("HOLD_BY_PATRON_ID")),
-                new LibraryBranchId((UUID) map.get("HOLD_AT_BRANCH")));
+    @Override
+    public HoldsToExpireSheet queryForHoldsToExpireSheet(SheetShard shard) {
+        return holdsToExpire(Option.of(shard));
     }
 
     @Override
-    public CheckoutsToOverdueSheet queryForCheckoutsToOverdue() {
-        return new CheckoutsToOverdueSheet(ofAll(
-                findCheckoutsToOverdue()
-                        .stream()
-                        .map(this::toOverdueCheckout)
-                        .collect(toList())));
+    public CheckoutsToOverdueSheet queryForCheckoutsToOverdue(SheetShard shard) {
+        return checkoutsToOverdue(Option.of(shard));
+    }
+
+    private HoldsToExpireSheet holdsToExpire(Option<SheetShard> shard) {
+        Timestamp now = from(Instant.now(clock));
+        return HoldsToExpireSheet.pagedFrom(lastHold -> page(
+                HOLDS_TO_EXPIRE, "h.hold_by_patron_id", "h.book_id", now, shard,
+                lastHold.map(hold -> Tuple.of(hold.getPatron(), hold.getHeldBook())),
+                this::toExpiredHold));
     }
 
-    private List<Map<String, Object>> findCheckoutsToOverdue() {
-        return sheets.query(
-                "SELECT c.book_id, c.checked_out_by_patron_id, c.checked_out_at_branch FROM checkouts_sheet c WHERE c.status = 'CHECKEDOUT' and c.checkout_till <= ?",
-                new Object[]{from(Instant.now(clock))},
-                new ColumnMapRowMapper());
+    private CheckoutsToOverdueSheet checkoutsToOverdue(Option<SheetShard> shard) {
+        Timestamp now = from(Instant.now(clock));
+        return CheckoutsToOverdueSheet.pagedFrom(lastCheckout -> page(
+                CHECKOUTS_TO_OVERDUE, "c.checked_out_by_patron_id", "c.book_id", now, shard,
+                lastCheckout.map(checkout -> Tuple.of(checkout.getPatron(), checkout.getCheckedOutBook())),
+                this::toOverdueCheckout));
     }
 
-    private OverdueCheckout toOverdueCheckout(Map<String, Object> map) {
+    private <T> List<T> page(String query, String patronColumn, String bookColumn, Timestamp now, Option<SheetShard> shard,
+                             Option<Tuple2<PatronId, BookId>> lastRow, RowMapper<T> rowMapper) {
+        String sql = query
+                + shard.map(s -> String.format(IN_SHARD, patronColumn)).getOrElse("")
+                + shard.flatMap(SheetShard::getResumeAfter).map(patron -> String.format(RESUMED_AFTER, patronColumn)).getOrElse("")
+                + lastRow.map(row -> String.format(AFTER_ROW, patronColumn, bookColumn)).getOrElse("")
+                + String.format(PAGE_ORDERED_BY, patronColumn, bookColumn);
+        java.util.List<Object> parameters = new ArrayList<>();
+        parameters.add(now);
+        for (SheetShard inShard : shard) {
+            parameters.add(inShard.getCount() - 1);
+            parameters.add(inShard.getIndex());
+            inShard.getResumeAfter().forEach(patron -> parameters.add(patron.getPatronId()));
+        }
+        for (Tuple2<PatronId, BookId> row : lastRow) {
+            parameters.add(row._1.getPatronId());
+            parameters.add(row._1.getPatronId());
+            parameters.add(row._2.getBookId());
+        }
+        parameters.add(SHEET_PAGE_SIZE);
+        return List.ofAll(sheets.query(sql, parameters.toArray(), rowMapper));
+    }
+
+    private ExpiredHold toExpiredHold(ResultSet rs, int rowNum) throws SQLException {
+        return new ExpiredHold(
+                new BookId((UUID) rs.getObject(1)),
+                new PatronId((UUID) rs.getObject(2)),
+                new LibraryBranchId((UUID) rs.getObject(3)));
+    }
+
+    private OverdueCheckout toOverdueCheckout(ResultSet rs, int rowNum) throws SQLException {
         return new OverdueCheckout(
-                new BookId((UUID) map.get("BOOK_ID")),
-                new PatronId((UUID) map.get("CHECKED_OUT_BY_PATRON_ID")),
-                new LibraryBranchId((UUID) map.get("CHECKED_OUT_AT_BRANCH")));
+                new BookId((UUID) rs.getObject(1)),
+                new PatronId((UUID) rs.getObject(2)),
+                new LibraryBranchId((UUID) rs.getObject(3)));
     }
 
     @Override
@@ -97,22 +154,28 @@ class SheetsReadModel implements DailySheet {
     }
 
     private void createNewHold(BookPlacedOnHold event) {
-        sheets.update("INSERT INTO holds_sheet " +
-                        "(id, book_id, status, hold_event_id, hold_by_patron_id, hold_at, hold_till, expired_at, canceled_at, hold_at_branch, checked_out_at) VALUES " +
-                        "(holds_sheet_seq.nextval, ?, ?, ?, ?, ?, ?, null, null, ?, null)",
+        sheets.update(INSERT_HOLD, holdRow(new NewHold(event)));
+    }
+
+    private Object[] holdRow(NewHold hold) {
+        BookPlacedOnHold event = hold.getEvent();
+        return new Object[]{
                 event.getBookId(),
-                "ACTIVE",
+                hold.getStatus(),
                 event.getEventId(),
                 event.getPatronId(),
                 from(event.getWhen()),
-                Option.of(event.getHoldTill()).map(Timestamp::from).getOrNull(),
-                event.getLibraryBranchId());
+                timestampOrNull(event.getHoldTill()),
+                timestampOrNull(hold.getExpiredAt()),
+                timestampOrNull(hold.getCanceledAt()),
+                event.getLibraryBranchId(),
+                timestampOrNull(hold.getCheckedOutAt())};
     }
 
-
     @Override
+    @EventListener
     public void handle(BookHoldCanceled event) {
-        sheets.update("UPDATE holds_sheet SET canceled_at = ?, status = 'CANCELED' WHERE canceled_at IS NULL AND book_id = ? AND hold_by_patron_id = ?",
+        sheets.update(CANCEL_HOLD,
                 from(event.getWhen()),
                 event.getBookId(),
                 event.getPatronId());
@@ -121,7 +184,7 @@ class SheetsReadModel implements DailySheet {
     @Override
     @EventListener
     public void handle(BookHoldExpired event) {
-        sheets.update("UPDATE holds_sheet SET expired_at = ?, status = 'EXPIRED' WHERE expired_at IS NULL AND book_id = ? AND hold_by_patron_id = ?",
+        sheets.update(EXPIRE_HOLD,
                 from(event.getWhen()),
                 event.getBookId(),
                 event.getPatronId());
@@ -138,20 +201,24 @@ class SheetsReadModel implements DailySheet {
     }
 
     private void createNewCheckout(BookCheckedOut event) {
-        sheets.update("INSERT INTO checkouts_sheet " +
-                        "(id, book_id, status, checkout_event_id, checked_out_by_patron_id, checked_out_at, checkout_till, checked_out_at_branch, returned_at) VALUES " +
-                        "(checkouts_sheet_seq.nextval, ?, ?, ?, ?, ?, ?, ?, null)",
+        sheets.update(INSERT_CHECKOUT, checkoutRow(new NewCheckout(event)));
+        sheets.update(CHECK_OUT_HOLD,
+                from(event.getWhen()),
                 event.getBookId(),
-                "CHECKEDOUT",
+                event.getPatronId());
+    }
+
+    private Object[] checkoutRow(NewCheckout checkout) {
+        BookCheckedOut event = checkout.getEvent();
+        return new Object[]{
+                event.getBookId(),
+                checkout.getStatus(),
                 event.getEventId(),
                 event.getPatronId(),
                 from(event.getWhen()),
                 from(event.getTill()),
-                event.getLibraryBranchId());
-        sheets.update("UPDATE holds_sheet SET checked_out_at = ?, status = 'CHECKEDOUT' WHERE checked_out_at IS NULL AND book_id = ? AND hold_by_patron_id = ?",
-                from(event.getWhen()),
-                event.getBookId(),
-                event.getPatronId());
+                event.getLibraryBranchId(),
+                timestampOrNull(checkout.getReturnedAt())};
     }
 
     @Override
@@ -165,21 +232,73 @@ class SheetsReadModel implements DailySheet {
     }
 
     private int markAsReturned(BookReturned event) {
-        return sheets.update("UPDATE checkouts_sheet SET returned_at = ?, status = 'RETURNED' WHERE returned_at IS NULL AND book_id = ? AND checked_out_by_patron_id = ?",
+        return sheets.update(RETURN_CHECKOUT,
                 from(event.getWhen()),
                 event.getBookId(),
                 event.getPatronId());
     }
 
     private void insertAsReturnedWithCheckedOutEventMissing(BookReturned event) {
-        sheets.update("INSERT INTO checkouts_sheet " +
-                        "(id, book_id, status, checkout_event_id, checked_out_by_patron_id, checked_out_at, checked_out_till, returned_at) VALUES " +
-                        "(checkouts_sheet_seq.nextval, ?, ?, ?, ?, null, null, ?)",
+        sheets.update(INSERT_RETURNED_CHECKOUT, returnedCheckoutRow(event));
+    }
+
+    private Object[] returnedCheckoutRow(BookReturned event) {
+        return new Object[]{
                 event.getBookId(),
                 "CHECKEDOUT",
                 event.getEventId(),
                 event.getPatronId(),
-                from(event.getWhen()));
+                from(event.getWhen())};
+    }
+
+    /**
+     * Inserts go first, so that updates pending for the same (book_id, patron_id) find their rows.
+     */
+    void apply(SheetsUpdates updates) {
+        insertIdempotently(INSERT_HOLD, List.ofAll(updates.newHolds()).map(this::holdRow));
+        insertIdempotently(INSERT_CHECKOUT, List.ofAll(updates.newCheckouts()).map(this::checkoutRow));
+        List<HoldCompletion> completions = List.ofAll(updates.holdCompletions());
+        completeHolds(CANCEL_HOLD, completions.filter(completion -> completion.getType() == HoldCompletionType.CANCELED));
+        completeHolds(EXPIRE_HOLD, completions.filter(completion -> completion.getType() == HoldCompletionType.EXPIRED));
+        completeHolds(CHECK_OUT_HOLD, completions.filter(completion -> completion.getType() == HoldCompletionType.CHECKEDOUT));
+        List<BookReturned> returns = List.ofAll(updates.returns());
+        int[] returned = batchUpdate(RETURN_CHECKOUT, returns.map(event -> new Object[]{from(event.getWhen()), event.getBookId(), event.getPatronId()}));
+        insertIdempotently(INSERT_RETURNED_CHECKOUT, returns
+                .zipWithIndex()
+                .filter(returnWithIndex -> returned[returnWithIndex._2] == 0)
+                .map(returnWithIndex -> returnedCheckoutRow(returnWithIndex._1)));
+    }
+
+    private void completeHolds(String sql, List<HoldCompletion> completions) {
+        batchUpdate(sql, completions.map(completion -> new Object[]{
+                from(completion.getWhen()),
+                completion.getKey().getBookId(),
+                completion.getKey().getPatronId()}));
+    }
+
+    private void insertIdempotently(String sql, List<Object[]> rows) {
+        try {
+            batchUpdate(sql, rows);
+        } catch (DuplicateKeyException ex) {
+            rows.forEach(row -> {
+                try {
+                    sheets.update(sql, row);
+                } catch (DuplicateKeyException duplicate) {
+                    //idempotent operation
+                }
+            });
+        }
+    }
+
+    private int[] batchUpdate(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return new int[0];
+        }
+        return sheets.batchUpdate(sql, rows.asJava());
+    }
+
+    private static Timestamp timestampOrNull(Instant instant) {
+        return Option.of(instant).map(Timestamp::from).getOrNull();
     }
 
 }
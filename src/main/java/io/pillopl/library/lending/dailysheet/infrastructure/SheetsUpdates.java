@@ -0,0 +1,212 @@
+package io.pillopl.library.lending.dailysheet.infrastructure;
+
+import io.pillopl.library.lending.patron.model.PatronEvent;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookCheckedOut;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldCanceled;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldExpired;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHold;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookReturned;
+import io.vavr.API;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.vavr.API.$;
+import static io.vavr.API.Case;
+import static io.vavr.Predicates.instanceOf;
+
+/**
+ * An event that cannot be merged into what is pending for its key is rejected, so the caller flushes first.
+ */
+class SheetsUpdates {
+
+    private final Map<SheetKey, NewHold> newHolds = new LinkedHashMap<>();
+    private final Map<SheetKey, HoldCompletion> holdCompletions = new LinkedHashMap<>();
+    private final Map<SheetKey, NewCheckout> newCheckouts = new LinkedHashMap<>();
+    private final Map<SheetKey, BookReturned> returns = new LinkedHashMap<>();
+    private int events;
+
+    boolean tryAdd(PatronEvent event) {
+        boolean added = merge(event);
+        if (added) {
+            events++;
+        }
+        return added;
+    }
+
+    private boolean merge(PatronEvent event) {
+        return API.Match(event).of(
+                Case($(instanceOf(BookPlacedOnHold.class)), this::merge),
+                Case($(instanceOf(BookHoldCanceled.class)), this::merge),
+                Case($(instanceOf(BookHoldExpired.class)), this::merge),
+                Case($(instanceOf(BookCheckedOut.class)), this::merge),
+                Case($(instanceOf(BookReturned.class)), this::merge),
+                Case($(), true));
+    }
+
+    private boolean merge(BookPlacedOnHold event) {
+        SheetKey key = new SheetKey(event.getBookId(), event.getPatronId());
+        NewHold pending = newHolds.get(key);
+        if (pending != null) {
+            return pending.event.getEventId().equals(event.getEventId());
+        }
+        if (holdCompletions.containsKey(key)) {
+            return false;
+        }
+        newHolds.put(key, new NewHold(event));
+        return true;
+    }
+
+    private boolean merge(BookHoldCanceled event) {
+        return completeHold(new SheetKey(event.getBookId(), event.getPatronId()), HoldCompletionType.CANCELED, event.getWhen());
+    }
+
+    private boolean merge(BookHoldExpired event) {
+        return completeHold(new SheetKey(event.getBookId(), event.getPatronId()), HoldCompletionType.EXPIRED, event.getWhen());
+    }
+
+    private boolean completeHold(SheetKey key, HoldCompletionType type, Instant when) {
+        NewHold pending = newHolds.get(key);
+        if (pending != null) {
+            pending.complete(type, when);
+            return true;
+        }
+        HoldCompletion completion = holdCompletions.get(key);
+        if (completion == null) {
+            holdCompletions.put(key, new HoldCompletion(key, type, when));
+            return true;
+        }
+        return completion.type == type;
+    }
+
+    private boolean merge(BookCheckedOut event) {
+        SheetKey key = new SheetKey(event.getBookId(), event.getPatronId());
+        NewCheckout pending = newCheckouts.get(key);
+        if (pending != null) {
+            return pending.event.getEventId().equals(event.getEventId());
+        }
+        if (returns.containsKey(key)) {
+            return false;
+        }
+        HoldCompletion completion = holdCompletions.get(key);
+        if (!newHolds.containsKey(key) && completion != null && completion.type != HoldCompletionType.CHECKEDOUT) {
+            return false;
+        }
+        newCheckouts.put(key, new NewCheckout(event));
+        return completeHold(key, HoldCompletionType.CHECKEDOUT, event.getWhen());
+    }
+
+    private boolean merge(BookReturned event) {
+        SheetKey key = new SheetKey(event.getBookId(), event.getPatronId());
+        NewCheckout pending = newCheckouts.get(key);
+        if (pending != null) {
+            pending.returned(event.getWhen());
+            return true;
+        }
+        returns.putIfAbsent(key, event);
+        return true;
+    }
+
+    Collection<NewHold> newHolds() {
+        return newHolds.values();
+    }
+
+    Collection<HoldCompletion> holdCompletions() {
+        return holdCompletions.values();
+    }
+
+    Collection<NewCheckout> newCheckouts() {
+        return newCheckouts.values();
+    }
+
+    Collection<BookReturned> returns() {
+        return returns.values();
+    }
+
+    int events() {
+        return events;
+    }
+
+    boolean isEmpty() {
+        return newHolds.isEmpty() && holdCompletions.isEmpty() && newCheckouts.isEmpty() && returns.isEmpty();
+    }
+
+    @Value
+    static class SheetKey {
+        @NonNull UUID bookId;
+        @NonNull UUID patronId;
+    }
+
+    enum HoldCompletionType {
+        CANCELED, EXPIRED, CHECKEDOUT
+    }
+
+    @Value
+    static class HoldCompletion {
+        @NonNull SheetKey key;
+        @NonNull HoldCompletionType type;
+        @NonNull Instant when;
+    }
+
+    @Getter
+    static class NewHold {
+        private final BookPlacedOnHold event;
+        private String status = "ACTIVE";
+        private Instant canceledAt;
+        private Instant expiredAt;
+        private Instant checkedOutAt;
+
+        NewHold(BookPlacedOnHold event) {
+            this.event = event;
+        }
+
+        void complete(HoldCompletionType type, Instant when) {
+            switch (type) {
+                case CANCELED:
+                    if (canceledAt == null) {
+                        canceledAt = when;
+                        status = "CANCELED";
+                    }
+                    break;
+                case EXPIRED:
+                    if (expiredAt == null) {
+                        expiredAt = when;
+                        status = "EXPIRED";
+                    }
+                    break;
+                case CHECKEDOUT:
+                    if (checkedOutAt == null) {
+                        checkedOutAt = when;
+                        status = "CHECKEDOUT";
+                    }
+                    break;
+            }
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class NewCheckout {
+        private final BookCheckedOut event;
+        private String status;
+        private Instant returnedAt;
+
+        NewCheckout(BookCheckedOut event) {
+            this(event, "CHECKEDOUT", null);
+        }
+
+        void returned(Instant when) {
+            if (returnedAt == null) {
+                returnedAt = when;
+                status = "RETURNED";
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package io.pillopl.library.lending.dailysheet.infrastructure;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.pillopl.library.lending.dailysheet.model.CheckoutsToOverdueSheet;
+import io.pillopl.library.lending.dailysheet.model.DailySheet;
+import io.pillopl.library.lending.dailysheet.model.HoldsToExpireSheet;
+import io.pillopl.library.lending.dailysheet.model.SheetShard;
+import io.pillopl.library.lending.patron.model.PatronEvent;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookCheckedOut;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldCanceled;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldExpired;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHold;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookReturned;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Queries are served straight from the database, so they see only what has been flushed.
+ */
+@Slf4j
+class WriteBehindSheetsReadModel implements DailySheet, AutoCloseable {
+
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+    private static final long NOTHING_PENDING = Long.MIN_VALUE;
+
+    private final SheetsReadModel sheets;
+    private final BlockingQueue<PendingEvent> queue;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final Timer flushTimer;
+    private final Counter droppedEvents;
+    private final Thread projector;
+    private volatile boolean running = true;
+    private volatile long oldestInFlightNanos = NOTHING_PENDING;
+
+    WriteBehindSheetsReadModel(SheetsReadModel sheets, int capacity, int maxBatchSize, Duration maxDelay, MeterRegistry meterRegistry) {
+        this.sheets = sheets;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        Gauge.builder("daily_sheet_projection_queue_depth", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        Gauge.builder("daily_sheet_projection_lag", this, WriteBehindSheetsReadModel::lagInSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("daily_sheet_projection_flush")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.droppedEvents = meterRegistry.counter("daily_sheet_projection_dropped");
+        this.projector = new Thread(this::projectContinuously, "daily-sheet-projector");
+        this.projector.setDaemon(true);
+        this.projector.start();
+    }
+
+    @Override
+    public HoldsToExpireSheet queryForHoldsToExpireSheet() {
+        return sheets.queryForHoldsToExpireSheet();
+    }
+
+    @Override
+    public CheckoutsToOverdueSheet queryForCheckoutsToOverdue() {
+        return sheets.queryForCheckoutsToOverdue();
+    }
+
+    @Override
+    public HoldsToExpireSheet queryForHoldsToExpireSheet(SheetShard shard) {
+        return sheets.queryForHoldsToExpireSheet(shard);
+    }
+
+    @Override
+    public CheckoutsToOverdueSheet queryForCheckoutsToOverdue(SheetShard shard) {
+        return sheets.queryForCheckoutsToOverdue(shard);
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(BookPlacedOnHold event) {
+        enqueue(event);
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(BookHoldCanceled event) {
+        enqueue(event);
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(BookHoldExpired event) {
+        enqueue(event);
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(BookCheckedOut event) {
+        enqueue(event);
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(BookReturned event) {
+        enqueue(event);
+    }
+
+    private void enqueue(PatronEvent event) {
+        PendingEvent pending = new PendingEvent(event, System.nanoTime());
+        if (!running) {
+            project(List.of(pending));
+            return;
+        }
+        try {
+            queue.put(pending);
+            if (!running && queue.remove(pending)) {
+                project(List.of(pending));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for daily sheet projection queue", e);
+        }
+    }
+
+    private void projectContinuously() {
+        while (running || !queue.isEmpty()) {
+            try {
+                List<PendingEvent> window = nextWindow();
+                if (!window.isEmpty()) {
+                    project(window);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Daily sheet projection failed", e);
+            } finally {
+                oldestInFlightNanos = NOTHING_PENDING;
+            }
+        }
+    }
+
+    private List<PendingEvent> nextWindow() throws InterruptedException {
+        List<PendingEvent> window = new ArrayList<>(maxBatchSize);
+        PendingEvent first = queue.poll(maxDelayNanos, NANOSECONDS);
+        if (first == null) {
+            return window;
+        }
+        oldestInFlightNanos = first.enqueuedAtNanos;
+        window.add(first);
+        long deadline = first.enqueuedAtNanos + maxDelayNanos;
+        while (window.size() < maxBatchSize) {
+            long timeLeft = deadline - System.nanoTime();
+            PendingEvent next = timeLeft > 0 ? queue.poll(timeLeft, NANOSECONDS) : queue.poll();
+            if (next == null) {
+                break;
+            }
+            window.add(next);
+        }
+        return window;
+    }
+
+    private void project(List<PendingEvent> window) {
+        SheetsUpdates updates = new SheetsUpdates();
+        for (PendingEvent pending : window) {
+            if (!updates.tryAdd(pending.event)) {
+                flush(updates);
+                updates = new SheetsUpdates();
+                updates.tryAdd(pending.event);
+            }
+        }
+        flush(updates);
+    }
+
+    private void flush(SheetsUpdates updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                flushTimer.record(() -> sheets.apply(updates));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_FLUSH_ATTEMPTS) {
+                    droppedEvents.increment(updates.events());
+                    log.error("Dropping {} daily sheet events after {} attempts", updates.events(), attempt, e);
+                    return;
+                }
+                log.warn("Flushing {} daily sheet events failed, retrying", updates.events(), e);
+            }
+        }
+    }
+
+    private double lagInSeconds() {
+        long oldest = oldestInFlightNanos;
+        if (oldest == NOTHING_PENDING) {
+            PendingEvent head = queue.peek();
+            if (head == null) {
+                return 0;
+            }
+            oldest = head.enqueuedAtNanos;
+        }
+        return (System.nanoTime() - oldest) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        projector.join();
+    }
+
+    @Value
+    private static class PendingEvent {
+        PatronEvent event;
+        long enqueuedAtNanos;
+    }
+}
@@ -1,24 +1,48 @@
 package io.pillopl.library.lending.dailysheet.model;
 
 import io.pillopl.library.lending.patron.model.PatronEvent.OverdueCheckoutRegistered;
+import io.vavr.collection.Iterator;
 import io.vavr.collection.List;
 import io.vavr.collection.Stream;
 import lombok.NonNull;
-import lombok.Value;
 
-@Value
+import java.util.function.Consumer;
+
 public class CheckoutsToOverdueSheet {
 
-    @NonNull
-    List<OverdueCheckout> checkouts;
+    private SheetPages<OverdueCheckout> checkouts;
+
+    public CheckoutsToOverdueSheet(@NonNull List<OverdueCheckout> checkouts) {
+        this(SheetPages.of(checkouts));
+    }
+
+    private CheckoutsToOverdueSheet(SheetPages<OverdueCheckout> checkouts) {
+        this.checkouts = checkouts;
+    }
+
+    public static CheckoutsToOverdueSheet pagedFrom(@NonNull SheetPages<OverdueCheckout> checkouts) {
+        return new CheckoutsToOverdueSheet(checkouts);
+    }
 
     public Stream<OverdueCheckoutRegistered> toStreamOfEvents() {
-        return checkouts.toStream()
-                .map(OverdueCheckout::toEvent);
+        return Stream.ofAll(rows().map(OverdueCheckout::toEvent));
+    }
+
+    public void forEachEvent(Consumer<OverdueCheckoutRegistered> action) {
+        rows().forEach(checkout -> action.accept(checkout.toEvent()));
     }
 
     public int count() {
-        return checkouts.size();
+        return rows().size();
+    }
+
+    private synchronized Iterator<OverdueCheckout> rows() {
+        if (checkouts == null) {
+            throw new IllegalStateException("Checkouts to overdue sheet has already been read");
+        }
+        Iterator<OverdueCheckout> rows = checkouts.rows();
+        checkouts = null;
+        return rows;
     }
 
 }
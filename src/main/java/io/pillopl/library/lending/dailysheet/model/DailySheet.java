@@ -8,6 +8,16 @@ public interface DailySheet {
 
     HoldsToExpireSheet queryForHoldsToExpireSheet();
 
+    /**
+     * Rows of the given shard only, ordered by patron.
+     */
+    CheckoutsToOverdueSheet queryForCheckoutsToOverdue(SheetShard shard);
+
+    /**
+     * Rows of the given shard only, ordered by patron.
+     */
+    HoldsToExpireSheet queryForHoldsToExpireSheet(SheetShard shard);
+
     void handle(BookPlacedOnHold event);
 
     void handle(BookHoldCanceled event);
@@ -1,27 +1,92 @@
 package io.pillopl.library.lending.dailysheet.model;
 
-import io.pillopl.library.lending.patron.model.PatronEvent;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldExpired;
+import io.pillopl.library.lending.patron.model.PatronId;
+import io.vavr.collection.Iterator;
 import io.vavr.collection.List;
 import io.vavr.collection.Stream;
 import lombok.NonNull;
-import lombok.Value;
-import org.springframework.context.event.EventListener;
 
-@Value
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
 public class HoldsToExpireSheet {
 
-    @NonNull
-    List<ExpiredHold> expiredHolds;
+    private SheetPages<ExpiredHold> expiredHolds;
+
+    public HoldsToExpireSheet(@NonNull List<ExpiredHold> expiredHolds) {
+        this(SheetPages.of(expiredHolds.sortBy(hold -> hold.getPatron().getPatronId())));
+    }
+
+    private HoldsToExpireSheet(SheetPages<ExpiredHold> expiredHolds) {
+        this.expiredHolds = expiredHolds;
+    }
+
+    /**
+     * Pages are expected to be ordered by patron.
+     */
+    public static HoldsToExpireSheet pagedFrom(@NonNull SheetPages<ExpiredHold> expiredHoldsOrderedByPatron) {
+        return new HoldsToExpireSheet(expiredHoldsOrderedByPatron);
+    }
 
-    @EventListener
-    public Stream<PatronEvent.BookHoldExpired> toStreamOfEvents() {
-        return expiredHolds
-                .toStream()
-                .map(ExpiredHold::toEvent);
+    public Stream<BookHoldExpired> toStreamOfEvents() {
+        return Stream.ofAll(rows().map(ExpiredHold::toEvent));
+    }
+
+    public void forEachEvent(Consumer<BookHoldExpired> action) {
+        rows().forEach(hold -> action.accept(hold.toEvent()));
+    }
+
+    public void forEachBatchOfPatrons(int patronsPerBatch, Consumer<List<BookHoldExpired>> action) {
+        PatronBatch batch = new PatronBatch(patronsPerBatch, action);
+        rows().forEach(batch::add);
+        batch.flush();
     }
 
     public int count() {
-        return expiredHolds.size();
+        return rows().size();
+    }
+
+    private synchronized Iterator<ExpiredHold> rows() {
+        if (expiredHolds == null) {
+            throw new IllegalStateException("Holds to expire sheet has already been read");
+        }
+        Iterator<ExpiredHold> rows = expiredHolds.rows();
+        expiredHolds = null;
+        return rows;
+    }
+
+    private static class PatronBatch {
+
+        private final int patronsPerBatch;
+        private final Consumer<List<BookHoldExpired>> action;
+        private final java.util.List<BookHoldExpired> events = new ArrayList<>();
+        private PatronId lastPatron;
+        private int patrons;
+
+        PatronBatch(int patronsPerBatch, Consumer<List<BookHoldExpired>> action) {
+            this.patronsPerBatch = patronsPerBatch;
+            this.action = action;
+        }
+
+        void add(ExpiredHold hold) {
+            if (!hold.getPatron().equals(lastPatron)) {
+                if (patrons == patronsPerBatch) {
+                    flush();
+                }
+                lastPatron = hold.getPatron();
+                patrons++;
+            }
+            events.add(hold.toEvent());
+        }
+
+        void flush() {
+            if (!events.isEmpty()) {
+                action.accept(List.ofAll(events));
+            }
+            events.clear();
+            patrons = 0;
+        }
     }
 
 }
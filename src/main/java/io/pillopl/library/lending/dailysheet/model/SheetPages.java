@@ -0,0 +1,27 @@
+package io.pillopl.library.lending.dailysheet.model;
+
+import io.vavr.collection.Iterator;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+
+/**
+ * Every page is read completely before its rows are handed out, so no cursor is held while they are processed.
+ */
+@FunctionalInterface
+public interface SheetPages<T> {
+
+    /**
+     * Rows following {@code lastRow} in sheet order, or the first rows when there is none; empty past the end.
+     */
+    List<T> after(Option<T> lastRow);
+
+    default Iterator<T> rows() {
+        return Iterator.iterate(after(Option.none()), page -> page.isEmpty() ? page : after(Option.of(page.last())))
+                .takeWhile(List::nonEmpty)
+                .flatMap(page -> page);
+    }
+
+    static <T> SheetPages<T> of(List<T> rows) {
+        return lastRow -> lastRow.isEmpty() ? rows : List.empty();
+    }
+}
@@ -0,0 +1,31 @@
+package io.pillopl.library.lending.dailysheet.model;
+
+import io.pillopl.library.lending.patron.model.PatronId;
+import io.vavr.control.Option;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Rows of patrons up to and including {@code resumeAfter} are skipped.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class SheetShard {
+
+    int index;
+    int count;
+    @NonNull Option<PatronId> resumeAfter;
+
+    public static SheetShard of(int index, int count) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + " of " + count);
+        }
+        return new SheetShard(index, count, Option.none());
+    }
+
+    public SheetShard resumedAfter(@NonNull PatronId patron) {
+        return new SheetShard(index, count, Option.of(patron));
+    }
+}
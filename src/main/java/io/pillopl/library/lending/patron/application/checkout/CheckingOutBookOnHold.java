@@ -1,6 +1,7 @@
 package io.pillopl.library.lending.patron.application.checkout;
 
 import io.pillopl.library.catalogue.BookId;
+import io.pillopl.library.commons.commands.CommandRetries;
 import io.pillopl.library.commons.commands.Result;
 import io.pillopl.library.lending.book.model.BookOnHold;
 import io.pillopl.library.lending.patron.application.hold.FindBookOnHold;
@@ -28,16 +29,21 @@ public class CheckingOutBookOnHold {
 
     private final FindBookOnHold findBookOnHold;
     private final Patrons patronRepository;
+    private final CommandRetries retries;
+
+    public CheckingOutBookOnHold(FindBookOnHold findBookOnHold, Patrons patronRepository) {
+        this(findBookOnHold, patronRepository, CommandRetries.none());
+    }
 
     public Try<Result> checkOut(@NonNull CheckOutBookCommand command) {
-        return Try.of(() -> {
+        return retries.run("check-out", "book", command.getBookId().getBookId(), () -> Try.of(() -> {
             BookOnHold bookOnHold = find(command.getBookId(), command.getPatronId());
             Patron patron = find(command.getPatronId());
             Either<BookCheckingOutFailed, BookCheckedOut> result = patron.checkOut(bookOnHold, command.getCheckoutDuration());
             return Match(result).of(
                     Case($Left($()), this::publishEvents),
                     Case($Right($()), this::publishEvents));
-        });
+        }));
     }
 
     private Result publishEvents(BookCheckedOut bookCheckedOut) {
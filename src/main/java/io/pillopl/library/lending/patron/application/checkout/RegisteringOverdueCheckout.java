@@ -1,12 +1,20 @@
 package io.pillopl.library.lending.patron.application.checkout;
 
 import io.pillopl.library.commons.commands.BatchResult;
+import io.pillopl.library.lending.dailysheet.model.CheckoutsToOverdueSheet;
 import io.pillopl.library.lending.dailysheet.model.DailySheet;
+import io.pillopl.library.lending.dailysheet.model.SheetShard;
 import io.pillopl.library.lending.patron.model.PatronEvent.OverdueCheckoutRegistered;
+import io.pillopl.library.lending.patron.model.PatronId;
 import io.pillopl.library.lending.patron.model.Patrons;
 import io.vavr.control.Try;
 import lombok.AllArgsConstructor;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
 @AllArgsConstructor
 public class RegisteringOverdueCheckout {
 
@@ -14,13 +22,31 @@ public class RegisteringOverdueCheckout {
     private final Patrons patronRepository;
 
     public Try<BatchResult> registerOverdueCheckouts() {
-        return Try.of(() ->
-                find.queryForCheckoutsToOverdue()
-                .toStreamOfEvents()
-                .map(this::publish)
-                .find(Try::isFailure)
-                .map(handleEventError -> BatchResult.SomeFailed)
-                .getOrElse(BatchResult.FullSuccess));
+        return register(find::queryForCheckoutsToOverdue, patron -> {});
+    }
+
+    public Try<BatchResult> registerOverdueCheckouts(SheetShard shard, Consumer<PatronId> processedUpTo) {
+        return register(() -> find.queryForCheckoutsToOverdue(shard), processedUpTo);
+    }
+
+    private Try<BatchResult> register(Supplier<CheckoutsToOverdueSheet> sheet, Consumer<PatronId> processedUpTo) {
+        return Try.of(() -> {
+            AtomicInteger failures = new AtomicInteger();
+            AtomicReference<PatronId> currentPatron = new AtomicReference<>();
+            sheet.get()
+                    .forEachEvent(event -> {
+                        PatronId patron = new PatronId(event.getPatronId());
+                        PatronId previousPatron = currentPatron.getAndSet(patron);
+                        if (previousPatron != null && !previousPatron.equals(patron)) {
+                            processedUpTo.accept(previousPatron);
+                        }
+                        publish(event).onFailure(t -> failures.incrementAndGet());
+                    });
+            if (currentPatron.get() != null) {
+                processedUpTo.accept(currentPatron.get());
+            }
+            return failures.get() == 0 ? BatchResult.FullSuccess : BatchResult.SomeFailed;
+        });
     }
 
     private Try<Void> publish(OverdueCheckoutRegistered event) {
@@ -1,5 +1,6 @@
 package io.pillopl.library.lending.patron.application.hold;
 
+import io.pillopl.library.commons.commands.CommandRetries;
 import io.pillopl.library.commons.commands.Result;
 import io.pillopl.library.catalogue.BookId;
 import io.pillopl.library.lending.book.model.BookOnHold;
@@ -24,9 +25,14 @@ public class CancelingHold {
 
     private final FindBookOnHold findBookOnHold;
     private final Patrons patronRepository;
+    private final CommandRetries retries;
+
+    public CancelingHold(FindBookOnHold findBookOnHold, Patrons patronRepository) {
+        this(findBookOnHold, patronRepository, CommandRetries.none());
+    }
 
     public Try<Result> cancelHold(@NonNull CancelHoldCommand command) {
-        return Try.of(() -> {
+        return retries.run("cancel-hold", "book", command.getBookId().getBookId(), () -> Try.of(() -> {
             BookOnHold bookOnHold = find(command.getBookId(), command.getPatronId());
             Patron patron = find(command.getPatronId());
             Either<BookHoldCancelingFailed, BookHoldCanceled> result = patron.cancelHold(bookOnHold);
@@ -34,7 +40,7 @@ public class CancelingHold {
                     Case($Left($()), this::publishEvents),
                     Case($Right($()), this::publishEvents)
             );
-        });
+        }));
     }
 
     private Result publishEvents(BookHoldCanceled bookHoldCanceled) {
@@ -2,30 +2,57 @@ package io.pillopl.library.lending.patron.application.hold;
 
 import io.pillopl.library.commons.commands.BatchResult;
 import io.pillopl.library.lending.dailysheet.model.DailySheet;
-import io.pillopl.library.lending.patron.model.PatronEvent;
+import io.pillopl.library.lending.dailysheet.model.HoldsToExpireSheet;
+import io.pillopl.library.lending.dailysheet.model.SheetShard;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldExpired;
+import io.pillopl.library.lending.patron.model.PatronId;
 import io.pillopl.library.lending.patron.model.Patrons;
+import io.vavr.collection.List;
 import io.vavr.control.Try;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @AllArgsConstructor
+@Slf4j
 public class ExpiringHolds {
 
+    private static final int DEFAULT_PATRONS_PER_BATCH = 200;
+
     private final DailySheet find;
     private final Patrons patronRepository;
+    private final int patronsPerBatch;
+
+    public ExpiringHolds(DailySheet find, Patrons patronRepository) {
+        this(find, patronRepository, DEFAULT_PATRONS_PER_BATCH);
+    }
 
     public Try<BatchResult> expireHolds() {
-        return Try.of(() ->
-                find.queryForHoldsToExpireSheet()
-                .toStreamOfEvents()
-                .map(this::publish)
-                .find(Try::isFailure)
-                .map(handleEventError -> BatchResult.SomeFailed)
-                .getOrElse(BatchResult.FullSuccess));
+        return expire(find::queryForHoldsToExpireSheet, patron -> {});
     }
 
-    private Try<Void> publish(PatronEvent.BookHoldExpired event) {
-        return Try.run(() -> patronRepository.publish(event));
+    public Try<BatchResult> expireHolds(SheetShard shard, Consumer<PatronId> processedUpTo) {
+        return expire(() -> find.queryForHoldsToExpireSheet(shard), processedUpTo);
     }
 
+    private Try<BatchResult> expire(Supplier<HoldsToExpireSheet> sheet, Consumer<PatronId> processedUpTo) {
+        return Try.of(() -> {
+            AtomicInteger failedBatches = new AtomicInteger();
+            sheet.get()
+                    .forEachBatchOfPatrons(patronsPerBatch, batch -> {
+                        publish(batch).onFailure(t -> failedBatches.incrementAndGet());
+                        batch.map(BookHoldExpired::getPatronId).distinct().map(PatronId::new).forEach(processedUpTo);
+                    });
+            return failedBatches.get() == 0 ? BatchResult.FullSuccess : BatchResult.SomeFailed;
+        });
+    }
+
+    private Try<Void> publish(List<BookHoldExpired> batch) {
+        return Try.run(() -> patronRepository.publish(batch))
+                .onFailure(t -> log.error("Failed to expire batch of {} holds", batch.size(), t));
+    }
 
 }
@@ -0,0 +1,32 @@
+package io.pillopl.library.lending.patron.application.hold;
+
+import io.pillopl.library.catalogue.BookId;
+import io.pillopl.library.lending.librarybranch.model.LibraryBranchId;
+import io.pillopl.library.lending.patron.model.HoldDuration;
+import io.pillopl.library.lending.patron.model.NumberOfDays;
+import io.pillopl.library.lending.patron.model.PatronId;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import java.time.Instant;
+import lombok.NonNull;
+import lombok.Value;
+
+@Value
+public class PlaceOnHoldInBulkCommand {
+    @NonNull Instant timestamp;
+    @NonNull PatronId patronId;
+    @NonNull LibraryBranchId libraryId;
+    @NonNull List<BookId> bookIds;
+    Option<Integer> noOfDays;
+
+    static PlaceOnHoldInBulkCommand closeEnded(PatronId patronId, LibraryBranchId libraryBranchId, List<BookId> bookIds, int forDays) {
+        return new PlaceOnHoldInBulkCommand(Instant.now(), patronId, libraryBranchId, bookIds, Option.of(forDays));
+    }
+
+    HoldDuration getHoldDuration() {
+        return noOfDays
+                .map(NumberOfDays::of)
+                .map(HoldDuration::closeEnded)
+                .getOrElse(HoldDuration.openEnded());
+    }
+}
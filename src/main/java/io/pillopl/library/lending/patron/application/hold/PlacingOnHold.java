@@ -1,17 +1,25 @@
 package io.pillopl.library.lending.patron.application.hold;
 
+import io.pillopl.library.commons.commands.CommandRetries;
 import io.pillopl.library.commons.commands.Result;
 import io.pillopl.library.lending.book.model.AvailableBook;
 import io.pillopl.library.catalogue.BookId;
 import io.pillopl.library.lending.patron.model.*;
 import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldFailed;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHold;
 import io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHoldEvents;
+import io.pillopl.library.lending.patron.model.PatronEvent.BooksPlacedOnHoldEvents;
+import io.vavr.Tuple;
+import io.vavr.collection.Map;
+import io.vavr.collection.Set;
 import io.vavr.control.Either;
+import io.vavr.control.Option;
 import io.vavr.control.Try;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.UUID;
 
 import static io.pillopl.library.commons.commands.Result.Success;
 import static io.vavr.API.*;
@@ -24,9 +32,14 @@ public class PlacingOnHold {
 
     private final FindAvailableBook findAvailableBook;
     private final Patrons patronRepository;
+    private final CommandRetries retries;
+
+    public PlacingOnHold(FindAvailableBook findAvailableBook, Patrons patronRepository) {
+        this(findAvailableBook, patronRepository, CommandRetries.none());
+    }
 
     public Try<Result> placeOnHold(@NonNull PlaceOnHoldCommand command) {
-        return Try.of(() -> {
+        return retries.run("place-on-hold", "book", command.getBookId().getBookId(), () -> Try.of(() -> {
             AvailableBook availableBook = find(command.getBookId());
             Patron patron = find(command.getPatronId());
             Either<BookHoldFailed, BookPlacedOnHoldEvents> result = patron.placeOnHold(availableBook, command.getHoldDuration());
@@ -34,7 +47,24 @@ public class PlacingOnHold {
                     Case($Left($()), this::publishEvents),
                     Case($Right($()), this::publishEvents)
             );
-        }).onFailure(t -> log.error("Failed to place a hold", t));
+        })).onFailure(t -> log.error("Failed to place a hold", t));
+    }
+
+    /**
+     * Books not available at the library branch of the command are rejected along with those refused by policies.
+     */
+    public Try<Map<BookId, Result>> placeOnHold(@NonNull PlaceOnHoldInBulkCommand command) {
+        return retries.run("place-on-hold-in-bulk", "patron", command.getPatronId().getPatronId(), () -> Try.of(() -> {
+            Patron patron = find(command.getPatronId());
+            Map<BookId, Option<AvailableBook>> books = command.getBookIds()
+                    .distinct()
+                    .toLinkedMap(bookId -> Tuple.of(bookId, findAvailableBook.findAvailableBookBy(bookId)
+                            .filter(book -> book.getLibraryBranch().equals(command.getLibraryId()))));
+            BooksPlacedOnHoldEvents placedOnHold = patron.placeOnHold(books.values().flatMap(book -> book).toList(), command.getHoldDuration());
+            patronRepository.publish(placedOnHold);
+            Set<UUID> booksPlacedOnHold = placedOnHold.getBooksPlacedOnHold().map(BookPlacedOnHold::getBookId).toSet();
+            return books.map((bookId, book) -> Tuple.of(bookId, booksPlacedOnHold.contains(bookId.getBookId()) ? Success : Result.Rejection));
+        })).onFailure(t -> log.error("Failed to place holds in bulk", t));
     }
 
     private Result publishEvents(BookPlacedOnHoldEvents placedOnHold) {
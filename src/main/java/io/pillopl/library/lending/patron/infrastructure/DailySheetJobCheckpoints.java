@@ -0,0 +1,57 @@
+package io.pillopl.library.lending.patron.infrastructure;
+
+import io.pillopl.library.lending.patron.model.PatronId;
+import io.vavr.control.Option;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A RUNNING shard is resumed only by a run of the same date with the same number of shards.
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+class DailySheetJobCheckpoints {
+
+    private static final String RUNNING = "RUNNING";
+    private static final String COMPLETED = "COMPLETED";
+
+    private static final String SELECT_RESUME_POINT = "SELECT c.last_patron_id FROM daily_sheet_job_checkpoint c " +
+            "WHERE c.job = ? AND c.run_date = ? AND c.shard = ? AND c.shards = ? " +
+            "AND c.status = '" + RUNNING + "' AND c.last_patron_id IS NOT NULL";
+    private static final String DELETE_EARLIER_RUNS = "DELETE FROM daily_sheet_job_checkpoint " +
+            "WHERE job = ? AND run_date < ? AND shard = ?";
+    private static final String MERGE = "MERGE INTO daily_sheet_job_checkpoint " +
+            "(job, run_date, shard, shards, status, last_patron_id, updated_at) KEY (job, run_date, shard, shards) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    Option<PatronId> start(String job, LocalDate runDate, int shard, int shards) {
+        jdbcTemplate.update(DELETE_EARLIER_RUNS, job, Date.valueOf(runDate), shard);
+        Option<PatronId> resumeAfter = Option.ofOptional(jdbcTemplate
+                .queryForList(SELECT_RESUME_POINT, UUID.class, job, Date.valueOf(runDate), shard, shards)
+                .stream()
+                .findFirst())
+                .map(PatronId::new);
+        save(job, runDate, shard, shards, RUNNING, resumeAfter.map(PatronId::getPatronId).getOrNull());
+        return resumeAfter;
+    }
+
+    void processedUpTo(String job, LocalDate runDate, int shard, int shards, PatronId patron) {
+        save(job, runDate, shard, shards, RUNNING, patron.getPatronId());
+    }
+
+    void completed(String job, LocalDate runDate, int shard, int shards) {
+        save(job, runDate, shard, shards, COMPLETED, null);
+    }
+
+    private void save(String job, LocalDate runDate, int shard, int shards, String status, UUID lastPatron) {
+        jdbcTemplate.update(MERGE, job, Date.valueOf(runDate), shard, shards, status, lastPatron, Timestamp.from(Instant.now()));
+    }
+}
@@ -0,0 +1,144 @@
+package io.pillopl.library.lending.patron.infrastructure;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.pillopl.library.commons.commands.BatchResult;
+import io.pillopl.library.lending.dailysheet.model.SheetShard;
+import io.pillopl.library.lending.patron.application.checkout.RegisteringOverdueCheckout;
+import io.pillopl.library.lending.patron.application.hold.ExpiringHolds;
+import io.pillopl.library.lending.patron.model.PatronId;
+import io.vavr.collection.List;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import static io.pillopl.library.commons.commands.BatchResult.FullSuccess;
+import static io.pillopl.library.commons.commands.BatchResult.SomeFailed;
+
+@Slf4j
+class DailySheetJobs implements AutoCloseable {
+
+    static final String EXPIRING_HOLDS = "expiring-holds";
+    static final String REGISTERING_OVERDUE_CHECKOUTS = "registering-overdue-checkouts";
+
+    private final ExpiringHolds expiringHolds;
+    private final RegisteringOverdueCheckout registeringOverdueCheckout;
+    private final DailySheetJobCheckpoints checkpoints;
+    private final int shards;
+    private final int checkpointEvery;
+    private final ExecutorService pool;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    DailySheetJobs(ExpiringHolds expiringHolds,
+                   RegisteringOverdueCheckout registeringOverdueCheckout,
+                   DailySheetJobCheckpoints checkpoints,
+                   int shards,
+                   int poolSize,
+                   int checkpointEvery,
+                   MeterRegistry meterRegistry,
+                   Clock clock) {
+        this.expiringHolds = expiringHolds;
+        this.registeringOverdueCheckout = registeringOverdueCheckout;
+        this.checkpoints = checkpoints;
+        this.shards = shards;
+        this.checkpointEvery = checkpointEvery;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        AtomicInteger threads = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "daily-sheet-job-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(cron = "${lending.daily-sheet.jobs.cron:0 0 1 * * *}")
+    public void runDaily() {
+        expireHolds();
+        registerOverdueCheckouts();
+    }
+
+    BatchResult expireHolds() {
+        return run(EXPIRING_HOLDS, expiringHolds::expireHolds);
+    }
+
+    BatchResult registerOverdueCheckouts() {
+        return run(REGISTERING_OVERDUE_CHECKOUTS, registeringOverdueCheckout::registerOverdueCheckouts);
+    }
+
+    private BatchResult run(String job, BiFunction<SheetShard, Consumer<PatronId>, Try<BatchResult>> shardJob) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        LocalDate runDate = LocalDate.now(clock);
+        Counter patrons = meterRegistry.counter("daily_sheet_job_patrons", "job", job);
+        BatchResult result = List.range(0, shards)
+                .map(shard -> CompletableFuture.supplyAsync(() -> runShard(job, runDate, shard, patrons, shardJob), pool))
+                .map(CompletableFuture::join)
+                .forAll(FullSuccess::equals) ? FullSuccess : SomeFailed;
+        sample.stop(meterRegistry.timer("daily_sheet_job", "job", job, "result", result.name()));
+        log.info("Daily sheet job {} finished with {}", job, result);
+        return result;
+    }
+
+    private BatchResult runShard(String job, LocalDate runDate, int index, Counter patrons, BiFunction<SheetShard, Consumer<PatronId>, Try<BatchResult>> shardJob) {
+        SheetShard shard = checkpoints.start(job, runDate, index, shards)
+                .map(SheetShard.of(index, shards)::resumedAfter)
+                .getOrElse(() -> SheetShard.of(index, shards));
+        ShardProgress progress = new ShardProgress(job, runDate, index, patrons);
+        Try<BatchResult> result = shardJob.apply(shard, progress::processed);
+        progress.checkpoint();
+        return result
+                .onSuccess(done -> checkpoints.completed(job, runDate, index, shards))
+                .onFailure(t -> log.error("Daily sheet job {} failed on shard {}, it will resume from the last checkpoint", job, index, t))
+                .getOrElse(SomeFailed);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private class ShardProgress {
+
+        private final String job;
+        private final LocalDate runDate;
+        private final int shard;
+        private final Counter patrons;
+        private PatronId lastProcessed;
+        private int sinceCheckpoint;
+
+        ShardProgress(String job, LocalDate runDate, int shard, Counter patrons) {
+            this.job = job;
+            this.runDate = runDate;
+            this.shard = shard;
+            this.patrons = patrons;
+        }
+
+        void processed(PatronId patron) {
+            patrons.increment();
+            lastProcessed = patron;
+            if (++sinceCheckpoint >= checkpointEvery) {
+                checkpoint();
+            }
+        }
+
+        void checkpoint() {
+            if (sinceCheckpoint > 0) {
+                checkpoints.processedUpTo(job, runDate, shard, shards, lastProcessed);
+                sinceCheckpoint = 0;
+            }
+        }
+    }
+}
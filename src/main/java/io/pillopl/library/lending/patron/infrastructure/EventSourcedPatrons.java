@@ -0,0 +1,173 @@
+package io.pillopl.library.lending.patron.infrastructure;
+
+import io.pillopl.library.commons.aggregates.AggregateRootIsStale;
+import io.pillopl.library.commons.events.DomainEvent;
+import io.pillopl.library.commons.events.DomainEvents;
+import io.pillopl.library.lending.patron.model.Patron;
+import io.pillopl.library.lending.patron.model.PatronEvent;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldExpired;
+import io.pillopl.library.lending.patron.model.PatronEvent.PatronCreated;
+import io.pillopl.library.lending.patron.model.PatronId;
+import io.pillopl.library.lending.patron.model.PatronType;
+import io.pillopl.library.lending.patron.model.Patrons;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.UUID;
+
+import static io.pillopl.library.commons.serialization.JavaSerialization.deserialize;
+import static io.pillopl.library.commons.serialization.JavaSerialization.serialize;
+
+/**
+ * Appending at the next sequence number of a stream doubles as the optimistic lock.
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+class EventSourcedPatrons implements Patrons {
+
+    private static final String APPEND = "INSERT INTO patron_event " +
+            "(patron_id, sequence, event_type, occurred_at, payload) VALUES " +
+            "(?, ?, ?, ?, ?)";
+    private static final String SELECT_SNAPSHOT = "SELECT s.sequence, s.state FROM patron_snapshot s WHERE s.patron_id = ?";
+    private static final String SELECT_EVENTS_AFTER = "SELECT e.payload FROM patron_event e WHERE e.patron_id = ? AND e.sequence > ? ORDER BY e.sequence";
+    private static final String SAVE_SNAPSHOT = "MERGE INTO patron_snapshot (patron_id, sequence, state) KEY (patron_id) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DomainModelMapper domainModelMapper;
+    private final DomainEvents domainEvents;
+    private final int snapshotEvery;
+
+    @Override
+    public Option<Patron> findBy(PatronId patronId) {
+        return load(patronId).map(stream -> domainModelMapper.map(stream.state));
+    }
+
+    @Override
+    @Transactional
+    public Patron publish(PatronEvent event) {
+        PatronStream stream = event instanceof PatronCreated ?
+                PatronStream.empty() :
+                load(event.patronId()).getOrElseThrow(() -> new IllegalStateException("Patron not found: " + event.patronId()));
+        append(event.patronId(), stream, List.of(event));
+        domainEvents.publish(event.normalize());
+        return domainModelMapper.map(stream.state);
+    }
+
+    @Override
+    @Transactional
+    public void publish(List<BookHoldExpired> holdsExpired) {
+        List<BookHoldExpired> expired = holdsExpired
+                .map(BookHoldExpired::patronId)
+                .distinct()
+                .flatMap(patronId -> load(patronId).map(stream -> expire(patronId, stream, holdsExpired)))
+                .flatMap(events -> events);
+        domainEvents.publish(expired.map(DomainEvent.class::cast));
+    }
+
+    private List<BookHoldExpired> expire(PatronId patronId, PatronStream stream, List<BookHoldExpired> holdsExpired) {
+        List<BookHoldExpired> expired = holdsExpired
+                .filter(event -> event.patronId().equals(patronId))
+                .filter(stream::isHolding);
+        append(patronId, stream, expired.map(PatronEvent.class::cast));
+        return expired;
+    }
+
+    private void append(PatronId patronId, PatronStream stream, List<PatronEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        int appendedAfter = stream.sequence;
+        java.util.List<Object[]> rows = new ArrayList<>(events.size());
+        for (PatronEvent event : events) {
+            stream.apply(event);
+            rows.add(new Object[]{
+                    patronId.getPatronId(),
+                    stream.sequence,
+                    event.getClass().getSimpleName(),
+                    Timestamp.from(event.getWhen()),
+                    serialize(event)});
+        }
+        try {
+            jdbcTemplate.batchUpdate(APPEND, rows);
+        } catch (DuplicateKeyException e) {
+            throw new AggregateRootIsStale("Someone has updated patron in the meantime, patron: " + patronId);
+        }
+        if (stream.sequence / snapshotEvery > appendedAfter / snapshotEvery) {
+            jdbcTemplate.update(SAVE_SNAPSHOT, patronId.getPatronId(), stream.sequence, serialize(stream.snapshot()));
+        }
+    }
+
+    private Option<PatronStream> load(PatronId patronId) {
+        Option<PatronStream> snapshot = Option.ofOptional(jdbcTemplate.query(SELECT_SNAPSHOT,
+                (rs, i) -> PatronStream.restore(rs.getInt(1), deserialize(rs.getBytes(2), PatronSnapshot.class)),
+                patronId.getPatronId())
+                .stream()
+                .findFirst());
+        java.util.List<PatronEvent> tail = jdbcTemplate.query(SELECT_EVENTS_AFTER,
+                (rs, i) -> deserialize(rs.getBytes(1), PatronEvent.class),
+                patronId.getPatronId(),
+                snapshot.map(stream -> stream.sequence).getOrElse(0));
+        if (snapshot.isEmpty() && tail.isEmpty()) {
+            return Option.none();
+        }
+        PatronStream stream = snapshot.getOrElse(PatronStream::empty);
+        tail.forEach(stream::apply);
+        return Option.of(stream);
+    }
+
+    private static class PatronStream {
+
+        private PatronDatabaseEntity state;
+        private int sequence;
+
+        private PatronStream(PatronDatabaseEntity state, int sequence) {
+            this.state = state;
+            this.sequence = sequence;
+        }
+
+        static PatronStream empty() {
+            return new PatronStream(null, 0);
+        }
+
+        static PatronStream restore(int sequence, PatronSnapshot snapshot) {
+            PatronDatabaseEntity state = new PatronDatabaseEntity(new PatronId(snapshot.patronId), snapshot.patronType);
+            state.booksOnHold.addAll(snapshot.booksOnHold);
+            state.checkouts.addAll(snapshot.checkouts);
+            return new PatronStream(state, sequence);
+        }
+
+        void apply(PatronEvent event) {
+            if (event instanceof PatronCreated) {
+                state = new PatronDatabaseEntity(event.patronId(), ((PatronCreated) event).getPatronType());
+            } else {
+                state = state.handle(event);
+            }
+            sequence++;
+        }
+
+        boolean isHolding(BookHoldExpired event) {
+            return state.booksOnHold.contains(new HoldDatabaseEntity(event.getBookId(), event.getPatronId(), event.getLibraryBranchId(), null));
+        }
+
+        PatronSnapshot snapshot() {
+            return new PatronSnapshot(state.patronId, state.patronType, new HashSet<>(state.booksOnHold), new HashSet<>(state.checkouts));
+        }
+    }
+
+    @Value
+    private static class PatronSnapshot implements Serializable {
+        UUID patronId;
+        PatronType patronType;
+        HashSet<HoldDatabaseEntity> booksOnHold;
+        HashSet<OverdueCheckoutDatabaseEntity> checkouts;
+    }
+}
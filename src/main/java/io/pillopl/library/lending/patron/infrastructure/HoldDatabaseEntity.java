@@ -1,16 +1,19 @@
 package io.pillopl.library.lending.patron.infrastructure;
 
 import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 
+import java.io.Serializable;
 import java.time.Instant;
 import java.util.UUID;
 
 @NoArgsConstructor(access = AccessLevel.PACKAGE)
+@EqualsAndHashCode(of = {"bookId", "libraryBranchId"})
 @Getter
-class HoldDatabaseEntity {
+class HoldDatabaseEntity implements Serializable {
 
     @Id
     Long id;
@@ -26,10 +29,4 @@ class HoldDatabaseEntity {
         this.till = till;
     }
 
-    boolean is(UUID patronId, UUID bookId, UUID libraryBranchId) {
-        return  this.patronId.equals(patronId) &&
-                this.bookId.equals(bookId) &&
-                this.libraryBranchId.equals(libraryBranchId);
-    }
-
 }
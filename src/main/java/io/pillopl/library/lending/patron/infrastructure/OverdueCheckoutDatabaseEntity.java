@@ -6,12 +6,13 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 
+import java.io.Serializable;
 import java.util.UUID;
 
 @NoArgsConstructor(access = AccessLevel.PACKAGE)
-@EqualsAndHashCode
+@EqualsAndHashCode(of = {"bookId", "libraryBranchId"})
 @Getter
-class OverdueCheckoutDatabaseEntity {
+class OverdueCheckoutDatabaseEntity implements Serializable {
 
     @Id
     Long id;
@@ -24,10 +25,4 @@ class OverdueCheckoutDatabaseEntity {
         this.patronId = patronId;
         this.libraryBranchId = libraryBranchId;
     }
-
-    boolean is(UUID patronId, UUID bookId, UUID libraryBranchId) {
-        return  this.patronId.equals(patronId) &&
-                this.bookId.equals(bookId) &&
-                this.libraryBranchId.equals(libraryBranchId);
-    }
 }
@@ -1,5 +1,7 @@
 package io.pillopl.library.lending.patron.infrastructure;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.pillopl.library.commons.commands.CommandRetries;
 import io.pillopl.library.commons.events.DomainEvents;
 import io.pillopl.library.lending.dailysheet.model.DailySheet;
 import io.pillopl.library.lending.patron.application.checkout.CheckingOutBookOnHold;
@@ -11,18 +13,27 @@ import io.pillopl.library.lending.patron.application.hold.FindBookOnHold;
 import io.pillopl.library.lending.patron.application.hold.HandleDuplicateHold;
 import io.pillopl.library.lending.patron.application.hold.PlacingOnHold;
 import io.pillopl.library.lending.patron.model.PatronFactory;
+import io.pillopl.library.lending.patron.model.PlacingOnHoldPolicies;
 import io.pillopl.library.lending.patron.model.Patrons;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jdbc.repository.config.EnableJdbcRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
 
 @Configuration
 @EnableJdbcRepositories
+@EnableConfigurationProperties(PlacingOnHoldPoliciesProperties.class)
 public class PatronConfiguration {
 
     @Bean
-    CheckingOutBookOnHold checkingOutBookOnHold(FindBookOnHold findBookOnHold, Patrons patronRepository) {
-        return new CheckingOutBookOnHold(findBookOnHold, patronRepository);
+    CheckingOutBookOnHold checkingOutBookOnHold(FindBookOnHold findBookOnHold, Patrons patronRepository, CommandRetries commandRetries) {
+        return new CheckingOutBookOnHold(findBookOnHold, patronRepository, commandRetries);
     }
 
     @Bean
@@ -31,8 +42,28 @@ public class PatronConfiguration {
     }
 
     @Bean
-    CancelingHold cancelingHold(FindBookOnHold findBookOnHold, Patrons patronRepository) {
-        return new CancelingHold(findBookOnHold, patronRepository);
+    @ConditionalOnProperty(name = "lending.daily-sheet.jobs.enabled", havingValue = "true", matchIfMissing = true)
+    DailySheetJobs dailySheetJobs(ExpiringHolds expiringHolds,
+                                  RegisteringOverdueCheckout registeringOverdueCheckout,
+                                  JdbcTemplate jdbcTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${lending.daily-sheet.jobs.shards:8}") int shards,
+                                  @Value("${lending.daily-sheet.jobs.pool-size:4}") int poolSize,
+                                  @Value("${lending.daily-sheet.jobs.checkpoint-every:100}") int checkpointEvery) {
+        return new DailySheetJobs(
+                expiringHolds,
+                registeringOverdueCheckout,
+                new DailySheetJobCheckpoints(jdbcTemplate),
+                shards,
+                poolSize,
+                checkpointEvery,
+                meterRegistry,
+                Clock.systemDefaultZone());
+    }
+
+    @Bean
+    CancelingHold cancelingHold(FindBookOnHold findBookOnHold, Patrons patronRepository, CommandRetries commandRetries) {
+        return new CancelingHold(findBookOnHold, patronRepository, commandRetries);
     }
 
     @Bean
@@ -46,16 +77,68 @@ public class PatronConfiguration {
     }
 
     @Bean
-    PlacingOnHold placingOnHold(FindAvailableBook findAvailableBook, Patrons patronRepository) {
-        return new PlacingOnHold(findAvailableBook, patronRepository);
+    PlacingOnHold placingOnHold(FindAvailableBook findAvailableBook, Patrons patronRepository, CommandRetries commandRetries) {
+        return new PlacingOnHold(findAvailableBook, patronRepository, commandRetries);
     }
 
     @Bean
+    CommandRetries commandRetries(MeterRegistry meterRegistry,
+                                  @Value("${lending.commands.retry.max-attempts:3}") int maxAttempts,
+                                  @Value("${lending.commands.retry.initial-backoff:10ms}") Duration initialBackoff,
+                                  @Value("${lending.commands.retry.max-backoff:200ms}") Duration maxBackoff,
+                                  @Value("${lending.commands.retry.tracked-aggregates:100}") int trackedAggregates) {
+        return new CommandRetries(maxAttempts, initialBackoff, maxBackoff, trackedAggregates, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "lending.patrons.store", havingValue = "relational", matchIfMissing = true)
     Patrons patronRepository(PatronEntityRepository patronEntityRepository,
-                             DomainEvents domainEvents) {
+                             DomainEvents domainEvents,
+                             JdbcTemplate jdbcTemplate,
+                             PatronsCache patronsCache,
+                             PatronDatabaseChanges patronDatabaseChanges,
+                             PlacingOnHoldPolicies placingOnHoldPolicies) {
         return new PatronsDatabaseRepository(
                 patronEntityRepository,
-                new DomainModelMapper(new PatronFactory()),
-                domainEvents);
+                new DomainModelMapper(new PatronFactory(placingOnHoldPolicies)),
+                domainEvents,
+                jdbcTemplate,
+                patronsCache,
+                patronDatabaseChanges);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "lending.patrons.store", havingValue = "event-sourced")
+    Patrons eventSourcedPatronRepository(JdbcTemplate jdbcTemplate,
+                                         DomainEvents domainEvents,
+                                         PlacingOnHoldPolicies placingOnHoldPolicies,
+                                         @Value("${lending.patrons.event-store.snapshot-every:50}") int snapshotEvery) {
+        return new EventSourcedPatrons(
+                jdbcTemplate,
+                new DomainModelMapper(new PatronFactory(placingOnHoldPolicies)),
+                domainEvents,
+                snapshotEvery);
+    }
+
+    @Bean
+    PlacingOnHoldPolicies placingOnHoldPolicies(PlacingOnHoldPoliciesProperties properties) {
+        return properties.toPolicies();
+    }
+
+    @Bean
+    PlacingOnHoldPolicyMetrics placingOnHoldPolicyMetrics(PlacingOnHoldPolicies placingOnHoldPolicies) {
+        return new PlacingOnHoldPolicyMetrics(placingOnHoldPolicies);
+    }
+
+    @Bean
+    PatronDatabaseChanges patronDatabaseChanges(JdbcTemplate jdbcTemplate) {
+        return new PatronDatabaseChanges(jdbcTemplate);
+    }
+
+    @Bean
+    PatronsCache patronsCache(@Value("${lending.patrons.cache.maximum-size:10000}") long maximumSize,
+                              @Value("${lending.patrons.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                              MeterRegistry meterRegistry) {
+        return new PatronsCache(maximumSize, expireAfterWrite, meterRegistry);
     }
 }
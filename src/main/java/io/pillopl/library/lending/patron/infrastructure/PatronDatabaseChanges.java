@@ -0,0 +1,105 @@
+package io.pillopl.library.lending.patron.infrastructure;
+
+import io.pillopl.library.commons.aggregates.AggregateRootIsStale;
+import io.pillopl.library.lending.patron.model.PatronEvent;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookCheckedOut;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldCanceled;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldExpired;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHold;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHoldEvents;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookReturned;
+import io.pillopl.library.lending.patron.model.PatronEvent.BooksPlacedOnHoldEvents;
+import io.pillopl.library.lending.patron.model.PatronEvent.OverdueCheckoutRegistered;
+import io.vavr.API;
+import io.vavr.collection.List;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static io.vavr.API.$;
+import static io.vavr.API.Case;
+import static io.vavr.Predicates.instanceOf;
+
+/**
+ * The patron row version is bumped in the same transaction and guards against concurrent changes.
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+class PatronDatabaseChanges {
+
+    private static final String INSERT_HOLD = "INSERT INTO hold_database_entity " +
+            "(book_id, patron_id, library_branch_id, patron_database_entity, till) VALUES " +
+            "(?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void persist(PatronDatabaseEntity patron, PatronEvent event) {
+        int updated = jdbcTemplate.update("UPDATE patron_database_entity p SET p.version = ? WHERE p.id = ? AND p.version = ?",
+                patron.version + 1,
+                patron.id,
+                patron.version);
+        if (updated == 0) {
+            throw new AggregateRootIsStale("Someone has updated patron in the meantime, patron: " + patron.patronId);
+        }
+        API.Match(event).of(
+                Case($(instanceOf(BookPlacedOnHoldEvents.class)), placedOnHoldEvents -> insertHold(patron, placedOnHoldEvents.getBookPlacedOnHold())),
+                Case($(instanceOf(BooksPlacedOnHoldEvents.class)), placedOnHoldEvents -> insertHolds(patron, placedOnHoldEvents.getBooksPlacedOnHold())),
+                Case($(instanceOf(BookPlacedOnHold.class)), placedOnHold -> insertHold(patron, placedOnHold)),
+                Case($(instanceOf(BookCheckedOut.class)), checkedOut -> deleteHold(patron, checkedOut.getBookId(), checkedOut.getLibraryBranchId())),
+                Case($(instanceOf(BookHoldCanceled.class)), canceled -> deleteHold(patron, canceled.getBookId(), canceled.getLibraryBranchId())),
+                Case($(instanceOf(BookHoldExpired.class)), expired -> deleteHold(patron, expired.getBookId(), expired.getLibraryBranchId())),
+                Case($(instanceOf(OverdueCheckoutRegistered.class)), overdue -> insertOverdueCheckout(patron, overdue)),
+                Case($(instanceOf(BookReturned.class)), returned -> deleteOverdueCheckout(patron, returned.getBookId(), returned.getLibraryBranchId()))
+        );
+        patron.version++;
+    }
+
+    private int insertHold(PatronDatabaseEntity patron, BookPlacedOnHold event) {
+        return jdbcTemplate.update(INSERT_HOLD, holdRow(patron, event));
+    }
+
+    private int insertHolds(PatronDatabaseEntity patron, List<BookPlacedOnHold> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        return IntStream.of(jdbcTemplate.batchUpdate(INSERT_HOLD, events.map(event -> holdRow(patron, event)).asJava())).sum();
+    }
+
+    private Object[] holdRow(PatronDatabaseEntity patron, BookPlacedOnHold event) {
+        return new Object[]{
+                event.getBookId(),
+                event.getPatronId(),
+                event.getLibraryBranchId(),
+                patron.id,
+                event.getHoldTill() == null ? null : Timestamp.from(event.getHoldTill())};
+    }
+
+    private int deleteHold(PatronDatabaseEntity patron, UUID bookId, UUID libraryBranchId) {
+        return jdbcTemplate.update("DELETE FROM hold_database_entity WHERE patron_database_entity = ? AND book_id = ? AND library_branch_id = ?",
+                patron.id,
+                bookId,
+                libraryBranchId);
+    }
+
+    private int insertOverdueCheckout(PatronDatabaseEntity patron, OverdueCheckoutRegistered event) {
+        return jdbcTemplate.update("INSERT INTO overdue_checkout_database_entity " +
+                        "(book_id, patron_id, library_branch_id, patron_database_entity) VALUES " +
+                        "(?, ?, ?, ?)",
+                event.getBookId(),
+                event.getPatronId(),
+                event.getLibraryBranchId(),
+                patron.id);
+    }
+
+    private int deleteOverdueCheckout(PatronDatabaseEntity patron, UUID bookId, UUID libraryBranchId) {
+        return jdbcTemplate.update("DELETE FROM overdue_checkout_database_entity WHERE patron_database_entity = ? AND book_id = ? AND library_branch_id = ?",
+                patron.id,
+                bookId,
+                libraryBranchId);
+    }
+}
@@ -25,6 +25,8 @@ class PatronDatabaseEntity {
     Long id;
     UUID patronId;
     PatronType patronType;
+    int version;
+    //both identified by (bookId, libraryBranchId), so that removals are hash lookups
     Set<HoldDatabaseEntity> booksOnHold;
     Set<OverdueCheckoutDatabaseEntity> checkouts;
 
@@ -38,6 +40,7 @@ class PatronDatabaseEntity {
     PatronDatabaseEntity handle(PatronEvent event) {
         return API.Match(event).of(
                 Case($(instanceOf(BookPlacedOnHoldEvents.class)), this::handle),
+                Case($(instanceOf(BooksPlacedOnHoldEvents.class)), this::handle),
                 Case($(instanceOf(BookPlacedOnHold.class)), this::handle),
                 Case($(instanceOf(BookCheckedOut.class)), this::handle),
                 Case($(instanceOf(BookHoldCanceled.class)), this::handle),
@@ -53,6 +56,11 @@ class PatronDatabaseEntity {
         return handle(event);
     }
 
+    private PatronDatabaseEntity handle(BooksPlacedOnHoldEvents placedOnHoldEvents) {
+        placedOnHoldEvents.getBooksPlacedOnHold().forEach(this::handle);
+        return this;
+    }
+
     private PatronDatabaseEntity handle(BookPlacedOnHold event) {
         booksOnHold.add(new HoldDatabaseEntity(event.getBookId(), event.getPatronId(), event.getLibraryBranchId(), event.getHoldTill()));
         return this;
@@ -81,20 +89,12 @@ class PatronDatabaseEntity {
     }
 
     private PatronDatabaseEntity removeHoldIfPresent(UUID patronId, UUID bookId, UUID libraryBranchId) {
-        booksOnHold
-                .stream()
-                .filter(entity -> entity.is(patronId, bookId, libraryBranchId))
-                .findAny()
-                .ifPresent(entity -> booksOnHold.remove(entity));
+        booksOnHold.remove(new HoldDatabaseEntity(bookId, patronId, libraryBranchId, null));
         return this;
     }
 
     private PatronDatabaseEntity removeOverdueCheckoutIfPresent(UUID patronId, UUID bookId, UUID libraryBranchId) {
-        checkouts
-                .stream()
-                .filter(entity -> entity.is(patronId, bookId, libraryBranchId))
-                .findAny()
-                .ifPresent(entity -> checkouts.remove(entity));
+        checkouts.remove(new OverdueCheckoutDatabaseEntity(bookId, patronId, libraryBranchId));
         return this;
     }
 
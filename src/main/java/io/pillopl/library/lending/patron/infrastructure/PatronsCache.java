@@ -0,0 +1,83 @@
+package io.pillopl.library.lending.patron.infrastructure;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.pillopl.library.lending.patron.model.Patron;
+import io.pillopl.library.lending.patron.model.PatronId;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import lombok.Value;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Entries carry their version, so a load that started before a write never replaces what that write cached.
+ */
+class PatronsCache {
+
+    private final Cache<PatronId, VersionedPatron> patrons;
+    private final AtomicLong versions = new AtomicLong();
+
+    PatronsCache(long maximumSize, Duration expireAfterWrite, MeterRegistry meterRegistry) {
+        this.patrons = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, patrons, "patrons");
+    }
+
+    Option<Patron> get(PatronId patronId, Function<PatronId, Option<Patron>> loader) {
+        long version = versions.incrementAndGet();
+        return Option.of(patrons.get(patronId, id -> loader.apply(id)
+                .map(patron -> new VersionedPatron(patron, version))
+                .getOrNull()))
+                .map(VersionedPatron::getPatron);
+    }
+
+    void put(PatronId patronId, Patron patron) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            patrons.invalidate(patronId);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    merge(patronId, patron);
+                }
+            });
+        } else {
+            merge(patronId, patron);
+        }
+    }
+
+    void evict(List<PatronId> patronIds) {
+        patrons.invalidateAll(patronIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    patrons.invalidateAll(patronIds);
+                }
+            });
+        }
+    }
+
+    private void merge(PatronId patronId, Patron patron) {
+        patrons.asMap().merge(patronId, new VersionedPatron(patron, versions.incrementAndGet()), VersionedPatron::newer);
+    }
+
+    @Value
+    private static class VersionedPatron {
+        Patron patron;
+        long version;
+
+        VersionedPatron newer(VersionedPatron other) {
+            return other.version > version ? other : this;
+        }
+    }
+}
@@ -1,18 +1,23 @@
 package io.pillopl.library.lending.patron.infrastructure;
 
+import io.pillopl.library.commons.events.DomainEvent;
 import io.pillopl.library.commons.events.DomainEvents;
 import io.pillopl.library.catalogue.BookId;
 import io.pillopl.library.lending.librarybranch.model.LibraryBranchId;
 import io.pillopl.library.lending.patron.model.*;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldExpired;
 import io.pillopl.library.lending.patron.model.PatronEvent.PatronCreated;
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
+import io.vavr.collection.List;
 import io.vavr.control.Option;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Map;
 import java.util.Map.Entry;
@@ -29,21 +34,50 @@ class PatronsDatabaseRepository implements Patrons {
     private final PatronEntityRepository patronEntityRepository;
     private final DomainModelMapper domainModelMapper;
     private final DomainEvents domainEvents;
+    private final JdbcTemplate jdbcTemplate;
+    private final PatronsCache patronsCache;
+    private final PatronDatabaseChanges patronDatabaseChanges;
 
     @Override
     public Option<Patron> findBy(PatronId patronId) {
-        return Option.of(patronEntityRepository
-                .findByPatronId(patronId.getPatronId()))
-                .map(domainModelMapper::map);
+        return patronsCache.get(patronId, id -> Option.of(patronEntityRepository
+                .findByPatronId(id.getPatronId()))
+                .map(domainModelMapper::map));
     }
 
     @Override
+    @Transactional
     public Patron publish(PatronEvent domainEvent) {
-        Patron result = Match(domainEvent).of(
-                Case($(instanceOf(PatronCreated.class)), this::createNewPatron),
-                Case($(), this::handleNextEvent));
-        domainEvents.publish(domainEvent.normalize());
-        return result;
+        try {
+            Patron result = Match(domainEvent).of(
+                    Case($(instanceOf(PatronCreated.class)), this::createNewPatron),
+                    Case($(), this::handleNextEvent));
+            patronsCache.put(domainEvent.patronId(), result);
+            domainEvents.publish(domainEvent.normalize());
+            return result;
+        } catch (RuntimeException e) {
+            patronsCache.evict(List.of(domainEvent.patronId()));
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional
+    public void publish(List<BookHoldExpired> holdsExpired) {
+        int[] removedHolds = jdbcTemplate.batchUpdate(
+                "DELETE FROM hold_database_entity WHERE patron_id = ? AND book_id = ? AND library_branch_id = ?",
+                holdsExpired
+                        .map(event -> new Object[]{event.getPatronId(), event.getBookId(), event.getLibraryBranchId()})
+                        .asJava());
+        List<BookHoldExpired> expired = holdsExpired
+                .zipWithIndex()
+                .filter(eventWithIndex -> removedHolds[eventWithIndex._2] != 0)
+                .map(eventWithIndex -> eventWithIndex._1);
+        jdbcTemplate.batchUpdate(
+                "UPDATE patron_database_entity p SET p.version = p.version + 1 WHERE p.patron_id = ?",
+                expired.map(BookHoldExpired::getPatronId).distinct().map(patronId -> new Object[]{patronId}).asJava());
+        patronsCache.evict(holdsExpired.map(BookHoldExpired::patronId).distinct());
+        domainEvents.publish(expired.map(DomainEvent.class::cast));
     }
 
     private Patron createNewPatron(PatronCreated domainEvent) {
@@ -55,7 +89,7 @@ class PatronsDatabaseRepository implements Patrons {
     private Patron handleNextEvent(PatronEvent domainEvent) {
         PatronDatabaseEntity entity = patronEntityRepository.findByPatronId(domainEvent.patronId().getPatronId());
         entity = entity.handle(domainEvent);
-        entity = patronEntityRepository.save(entity);
+        patronDatabaseChanges.persist(entity, domainEvent);
         return domainModelMapper.map(entity);
     }
 
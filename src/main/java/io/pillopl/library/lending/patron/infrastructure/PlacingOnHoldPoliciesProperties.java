@@ -0,0 +1,30 @@
+package io.pillopl.library.lending.patron.infrastructure;
+
+import io.pillopl.library.lending.librarybranch.model.LibraryBranchId;
+import io.pillopl.library.lending.patron.model.PlacingOnHoldPolicies;
+import io.vavr.Tuple;
+import io.vavr.collection.HashMap;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Getter
+@Setter
+@ConfigurationProperties("lending.placing-on-hold")
+class PlacingOnHoldPoliciesProperties {
+
+    private List<String> policies = PlacingOnHoldPolicies.availablePolicies().asJava();
+    private Map<UUID, List<String>> branches = new LinkedHashMap<>();
+
+    PlacingOnHoldPolicies toPolicies() {
+        return PlacingOnHoldPolicies.configured(
+                io.vavr.collection.List.ofAll(policies),
+                HashMap.ofAll(branches)
+                        .map((branch, names) -> Tuple.of(new LibraryBranchId(branch), io.vavr.collection.List.ofAll(names))));
+    }
+}
@@ -0,0 +1,31 @@
+package io.pillopl.library.lending.patron.infrastructure;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.pillopl.library.lending.patron.model.PlacingOnHoldPolicies;
+import io.pillopl.library.lending.patron.model.PlacingOnHoldPolicies.PolicyStatistics;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+class PlacingOnHoldPolicyMetrics implements MeterBinder {
+
+    private final PlacingOnHoldPolicies placingOnHoldPolicies;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        placingOnHoldPolicies.statistics().forEach(statistics -> {
+            FunctionCounter.builder("placing_on_hold_policy_evaluations", statistics, PolicyStatistics::evaluations)
+                    .tags("policy_set", statistics.policySet(), "policy", statistics.policy())
+                    .register(registry);
+            FunctionCounter.builder("placing_on_hold_policy_rejections", statistics, PolicyStatistics::rejections)
+                    .tags("policy_set", statistics.policySet(), "policy", statistics.policy())
+                    .register(registry);
+            Gauge.builder("placing_on_hold_policy_rejection_rate", statistics, PolicyStatistics::rejectionRate)
+                    .tags("policy_set", statistics.policySet(), "policy", statistics.policy())
+                    .register(registry);
+        });
+    }
+}
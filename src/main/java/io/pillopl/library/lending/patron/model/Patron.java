@@ -33,7 +33,7 @@ public class Patron {
     private final PatronInformation patron;
 
     @NonNull
-    private final List<PlacingOnHoldPolicy> placingOnHoldPolicies;
+    private final PlacingOnHoldPolicies placingOnHoldPolicies;
 
     @NonNull
     private final OverdueCheckouts overdueCheckouts;
@@ -41,6 +41,10 @@ public class Patron {
     @NonNull
     private final PatronHolds patronHolds;
 
+    Patron(PatronInformation patron, List<PlacingOnHoldPolicy> placingOnHoldPolicies, OverdueCheckouts overdueCheckouts, PatronHolds patronHolds) {
+        this(patron, PlacingOnHoldPolicies.of(placingOnHoldPolicies), overdueCheckouts, patronHolds);
+    }
+
     public Either<BookHoldFailed, BookPlacedOnHoldEvents> placeOnHold(AvailableBook book) {
         return placeOnHold(book, HoldDuration.openEnded());
     }
@@ -57,6 +61,32 @@ public class Patron {
         return announceFailure(bookHoldFailedNow(rejection.get(), aBook.getBookId(), aBook.getLibraryBranch(), patron));
     }
 
+    /**
+     * Every book is evaluated as if the holds placed earlier in the batch were already there.
+     */
+    public BooksPlacedOnHoldEvents placeOnHold(List<AvailableBook> books, HoldDuration duration) {
+        Patron current = this;
+        List<BookPlacedOnHold> placedOnHold = List.empty();
+        List<BookHoldFailed> holdsFailed = List.empty();
+        Option<MaximumNumberOhHoldsReached> maximumNumberOfHoldsReached = Option.none();
+        for (AvailableBook book : books) {
+            Either<BookHoldFailed, BookPlacedOnHoldEvents> result = current.placeOnHold(book, duration);
+            if (result.isRight()) {
+                BookPlacedOnHold bookPlacedOnHold = result.get().getBookPlacedOnHold();
+                placedOnHold = placedOnHold.append(bookPlacedOnHold);
+                maximumNumberOfHoldsReached = maximumNumberOfHoldsReached.orElse(result.get().getMaximumNumberOhHoldsReached());
+                current = current.withHoldOn(book);
+            } else {
+                holdsFailed = holdsFailed.append(result.getLeft());
+            }
+        }
+        return BooksPlacedOnHoldEvents.events(patron.getPatronId(), placedOnHold, holdsFailed, maximumNumberOfHoldsReached);
+    }
+
+    private Patron withHoldOn(AvailableBook book) {
+        return new Patron(patron, placingOnHoldPolicies, overdueCheckouts, patronHolds.with(new Hold(book.getBookId(), book.getLibraryBranch())));
+    }
+
     public Either<BookHoldCancelingFailed, BookHoldCanceled> cancelHold(BookOnHold book) {
         if (patronHolds.a(book)) {
             return announceSuccess(holdCanceledNow(book.getBookId(), book.getHoldPlacedAt(), patron.getPatronId()));
@@ -72,11 +102,7 @@ public class Patron {
     }
 
     private Option<Rejection> patronCanHold(AvailableBook aBook, HoldDuration forDuration) {
-        return placingOnHoldPolicies
-                .toStream()
-                .map(policy -> policy.apply(aBook, this, forDuration))
-                .find(Either::isLeft)
-                .map(Either::getLeft);
+        return placingOnHoldPolicies.evaluate(aBook, this, forDuration);
     }
 
     boolean isRegular() {
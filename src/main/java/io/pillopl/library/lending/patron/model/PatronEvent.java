@@ -88,6 +88,26 @@ public interface PatronEvent extends DomainEvent {
         }
     }
 
+    @Value
+    class BooksPlacedOnHoldEvents implements PatronEvent {
+        @NonNull UUID eventId = UUID.randomUUID();
+        @NonNull Instant when;
+        @NonNull UUID patronId;
+        @NonNull List<BookPlacedOnHold> booksPlacedOnHold;
+        @NonNull List<BookHoldFailed> booksHoldFailed;
+        @NonNull Option<MaximumNumberOhHoldsReached> maximumNumberOhHoldsReached;
+
+        public static BooksPlacedOnHoldEvents events(PatronId patronId, List<BookPlacedOnHold> booksPlacedOnHold, List<BookHoldFailed> booksHoldFailed, Option<MaximumNumberOhHoldsReached> maximumNumberOhHoldsReached) {
+            return new BooksPlacedOnHoldEvents(Instant.now(), patronId.getPatronId(), booksPlacedOnHold, booksHoldFailed, maximumNumberOhHoldsReached);
+        }
+
+        public List<DomainEvent> normalize() {
+            return List.<DomainEvent>ofAll(booksPlacedOnHold)
+                    .appendAll(booksHoldFailed)
+                    .appendAll(maximumNumberOhHoldsReached.toList());
+        }
+    }
+
     @Value
     class MaximumNumberOhHoldsReached implements PatronEvent {
         @NonNull UUID eventId = UUID.randomUUID();
@@ -7,14 +7,23 @@ import io.vavr.Tuple2;
 import java.util.Map;
 import java.util.Set;
 
-import static io.pillopl.library.lending.patron.model.PlacingOnHoldPolicy.allCurrentPolicies;
 import static java.util.stream.Collectors.toSet;
 
 public class PatronFactory {
 
+    private final PlacingOnHoldPolicies placingOnHoldPolicies;
+
+    public PatronFactory() {
+        this(PlacingOnHoldPolicies.allCurrentPolicies());
+    }
+
+    public PatronFactory(PlacingOnHoldPolicies placingOnHoldPolicies) {
+        this.placingOnHoldPolicies = placingOnHoldPolicies;
+    }
+
     public Patron create(PatronType patronType, PatronId patronId, Set<Tuple2<BookId, LibraryBranchId>> patronHolds, Map<LibraryBranchId, Set<BookId>> overdueCheckouts) {
         return new Patron(new PatronInformation(patronId, patronType),
-                allCurrentPolicies(),
+                placingOnHoldPolicies,
                 new OverdueCheckouts(overdueCheckouts),
                 new PatronHolds(
                         patronHolds
@@ -5,6 +5,7 @@ import io.pillopl.library.lending.book.model.BookOnHold;
 import lombok.NonNull;
 import lombok.Value;
 
+import java.util.HashSet;
 import java.util.Set;
 
 @Value
@@ -19,6 +20,12 @@ class PatronHolds {
         return resourcesOnHold.contains(hold);
     }
 
+    PatronHolds with(Hold hold) {
+        Set<Hold> holds = new HashSet<>(resourcesOnHold);
+        holds.add(hold);
+        return new PatronHolds(holds);
+    }
+
     int count() {
         return resourcesOnHold.size();
     }
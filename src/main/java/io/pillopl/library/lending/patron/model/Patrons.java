@@ -1,5 +1,7 @@
 package io.pillopl.library.lending.patron.model;
 
+import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldExpired;
+import io.vavr.collection.List;
 import io.vavr.control.Option;
 
 public interface Patrons {
@@ -7,4 +9,6 @@ public interface Patrons {
     Option<Patron> findBy(PatronId patronId);
 
     Patron publish(PatronEvent event);
+
+    void publish(List<BookHoldExpired> holdsExpired);
 }
@@ -0,0 +1,172 @@
+package io.pillopl.library.lending.patron.model;
+
+import io.pillopl.library.lending.book.model.AvailableBook;
+import io.pillopl.library.lending.librarybranch.model.LibraryBranchId;
+import io.vavr.Tuple;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * When several policies would reject, the one reported depends on the observed rejection rates.
+ */
+public final class PlacingOnHoldPolicies {
+
+    static final int REORDER_EVERY = 1024;
+    static final String DEFAULT_SET = "default";
+
+    private final PolicySet defaults;
+    private final java.util.Map<LibraryBranchId, PolicySet> perBranch;
+
+    private PlacingOnHoldPolicies(PolicySet defaults, Map<LibraryBranchId, PolicySet> perBranch) {
+        this.defaults = defaults;
+        this.perBranch = perBranch.toJavaMap();
+    }
+
+    public static PlacingOnHoldPolicies allCurrentPolicies() {
+        return configured(availablePolicies(), HashMap.empty());
+    }
+
+    public static List<String> availablePolicies() {
+        return PlacingOnHoldPolicy.policiesByName.keySet().toList();
+    }
+
+    /**
+     * @throws IllegalArgumentException when any of the policy names is not one of {@link #availablePolicies()}
+     */
+    public static PlacingOnHoldPolicies configured(List<String> defaultPolicies, Map<LibraryBranchId, List<String>> branchPolicies) {
+        return new PlacingOnHoldPolicies(
+                PolicySet.named(DEFAULT_SET, defaultPolicies),
+                branchPolicies.map((branch, names) -> Tuple.of(branch, PolicySet.named(branch.getLibraryBranchId().toString(), names))));
+    }
+
+    static PlacingOnHoldPolicies of(List<PlacingOnHoldPolicy> policies) {
+        return new PlacingOnHoldPolicies(
+                new PolicySet(DEFAULT_SET, policies.zipWithIndex().map(policy -> new CompiledPolicy(nameOf(policy._1, policy._2), policy._1))),
+                HashMap.empty());
+    }
+
+    public List<PolicyStatistics> statistics() {
+        return defaults.statistics().appendAll(List.ofAll(perBranch.values()).flatMap(PolicySet::statistics));
+    }
+
+    Option<Rejection> evaluate(AvailableBook book, Patron patron, HoldDuration duration) {
+        return perBranch.getOrDefault(book.getLibraryBranch(), defaults).evaluate(book, patron, duration);
+    }
+
+    private static String nameOf(PlacingOnHoldPolicy policy, int index) {
+        return PlacingOnHoldPolicy.policiesByName
+                .find(named -> named._2 == policy)
+                .map(named -> named._1)
+                .getOrElse(() -> "policy-" + index);
+    }
+
+    private static final class PolicySet {
+
+        private final String name;
+        private final AtomicLong evaluations = new AtomicLong();
+        private volatile CompiledPolicy[] order;
+
+        private PolicySet(String name, List<CompiledPolicy> policies) {
+            this.name = name;
+            this.order = policies.toJavaArray(CompiledPolicy.class);
+        }
+
+        static PolicySet named(String name, List<String> policyNames) {
+            return new PolicySet(name, policyNames.map(policyName -> new CompiledPolicy(policyName, PlacingOnHoldPolicy.policiesByName
+                    .get(policyName)
+                    .getOrElseThrow(() -> new IllegalArgumentException("Unknown placing on hold policy: " + policyName)))));
+        }
+
+        Option<Rejection> evaluate(AvailableBook book, Patron patron, HoldDuration duration) {
+            if (evaluations.incrementAndGet() % REORDER_EVERY == 0) {
+                reorder();
+            }
+            for (CompiledPolicy policy : order) {
+                Either<Rejection, Allowance> result = policy.evaluate(book, patron, duration);
+                if (result.isLeft()) {
+                    return Option.some(result.getLeft());
+                }
+            }
+            return Option.none();
+        }
+
+        private void reorder() {
+            CompiledPolicy[] reordered = order.clone();
+            Arrays.sort(reordered, Comparator.comparingDouble(CompiledPolicy::rejectionRate).reversed());
+            order = reordered;
+        }
+
+        List<PolicyStatistics> statistics() {
+            return List.of(order).map(policy -> new PolicyStatistics(name, policy));
+        }
+    }
+
+    private static final class CompiledPolicy {
+
+        private final String name;
+        private final PlacingOnHoldPolicy policy;
+        private final LongAdder evaluations = new LongAdder();
+        private final LongAdder rejections = new LongAdder();
+
+        private CompiledPolicy(String name, PlacingOnHoldPolicy policy) {
+            this.name = name;
+            this.policy = policy;
+        }
+
+        Either<Rejection, Allowance> evaluate(AvailableBook book, Patron patron, HoldDuration duration) {
+            evaluations.increment();
+            Either<Rejection, Allowance> result = policy.apply(book, patron, duration);
+            if (result.isLeft()) {
+                rejections.increment();
+            }
+            return result;
+        }
+
+        double rejectionRate() {
+            long evaluated = evaluations.sum();
+            return evaluated == 0 ? 0 : (double) rejections.sum() / evaluated;
+        }
+    }
+
+    /**
+     * Live counts of one policy in one policy set, for monitoring.
+     */
+    public static final class PolicyStatistics {
+
+        private final String policySet;
+        private final CompiledPolicy policy;
+
+        private PolicyStatistics(String policySet, CompiledPolicy policy) {
+            this.policySet = policySet;
+            this.policy = policy;
+        }
+
+        public String policySet() {
+            return policySet;
+        }
+
+        public String policy() {
+            return policy.name;
+        }
+
+        public long evaluations() {
+            return policy.evaluations.sum();
+        }
+
+        public long rejections() {
+            return policy.rejections.sum();
+        }
+
+        public double rejectionRate() {
+            return policy.rejectionRate();
+        }
+    }
+}
@@ -2,7 +2,9 @@ package io.pillopl.library.lending.patron.model;
 
 import io.pillopl.library.lending.book.model.AvailableBook;
 import io.vavr.Function3;
+import io.vavr.collection.LinkedHashMap;
 import io.vavr.collection.List;
+import io.vavr.collection.Map;
 import io.vavr.control.Either;
 import lombok.NonNull;
 import lombok.Value;
@@ -10,42 +12,38 @@ import lombok.Value;
 import static io.vavr.control.Either.left;
 import static io.vavr.control.Either.right;
 
+/**
+ * Policies answer with shared results, so evaluating them allocates nothing.
+ */
 interface PlacingOnHoldPolicy extends Function3<AvailableBook, Patron, HoldDuration, Either<Rejection, Allowance>> {
 
-    PlacingOnHoldPolicy onlyResearcherPatronsCanHoldRestrictedBooksPolicy = (AvailableBook toHold, Patron patron, HoldDuration holdDuration) -> {
-        if (toHold.isRestricted() && patron.isRegular()) {
-            return left(Rejection.withReason("Regular patrons cannot hold restricted books"));
-        }
-        return right(new Allowance());
-    };
-
-    PlacingOnHoldPolicy overdueCheckoutsRejectionPolicy = (AvailableBook toHold, Patron patron, HoldDuration holdDuration) -> {
-        if (patron.overdueCheckoutsAt(toHold.getLibraryBranch()) >= OverdueCheckouts.MAX_COUNT_OF_OVERDUE_RESOURCES) {
-            return left(Rejection.withReason("cannot place on hold when there are overdue checkouts"));
-        }
-        return right(new Allowance());
-    };
-
-    PlacingOnHoldPolicy regularPatronMaximumNumberOfHoldsPolicy = (AvailableBook toHold, Patron patron, HoldDuration holdDuration) -> {
-        if (patron.isRegular() && patron.numberOfHolds() >= PatronHolds.MAX_NUMBER_OF_HOLDS) {
-            return left(Rejection.withReason("patron cannot hold more books"));
-        }
-        return right(new Allowance());
-    };
-
-    PlacingOnHoldPolicy onlyResearcherPatronsCanPlaceOpenEndedHolds = (AvailableBook toHold, Patron patron, HoldDuration holdDuration) -> {
-        if (patron.isRegular() && holdDuration.isOpenEnded()) {
-            return left(Rejection.withReason("regular patron cannot place open ended holds"));
-        }
-        return right(new Allowance());
-    };
+    Either<Rejection, Allowance> ALLOWED = right(new Allowance());
+
+    PlacingOnHoldPolicy onlyResearcherPatronsCanHoldRestrictedBooksPolicy = rejectingWith("Regular patrons cannot hold restricted books",
+            (toHold, patron, holdDuration) -> toHold.isRestricted() && patron.isRegular());
+
+    PlacingOnHoldPolicy overdueCheckoutsRejectionPolicy = rejectingWith("cannot place on hold when there are overdue checkouts",
+            (toHold, patron, holdDuration) -> patron.overdueCheckoutsAt(toHold.getLibraryBranch()) >= OverdueCheckouts.MAX_COUNT_OF_OVERDUE_RESOURCES);
+
+    PlacingOnHoldPolicy regularPatronMaximumNumberOfHoldsPolicy = rejectingWith("patron cannot hold more books",
+            (toHold, patron, holdDuration) -> patron.isRegular() && patron.numberOfHolds() >= PatronHolds.MAX_NUMBER_OF_HOLDS);
+
+    PlacingOnHoldPolicy onlyResearcherPatronsCanPlaceOpenEndedHolds = rejectingWith("regular patron cannot place open ended holds",
+            (toHold, patron, holdDuration) -> patron.isRegular() && holdDuration.isOpenEnded());
+
+    Map<String, PlacingOnHoldPolicy> policiesByName = LinkedHashMap.of(
+            "only-researchers-hold-restricted-books", onlyResearcherPatronsCanHoldRestrictedBooksPolicy,
+            "overdue-checkouts", overdueCheckoutsRejectionPolicy,
+            "regular-patron-maximum-holds", regularPatronMaximumNumberOfHoldsPolicy,
+            "only-researchers-place-open-ended-holds", onlyResearcherPatronsCanPlaceOpenEndedHolds);
 
     static List<PlacingOnHoldPolicy> allCurrentPolicies() {
-        return List.of(
-                onlyResearcherPatronsCanHoldRestrictedBooksPolicy,
-                overdueCheckoutsRejectionPolicy,
-                regularPatronMaximumNumberOfHoldsPolicy,
-                onlyResearcherPatronsCanPlaceOpenEndedHolds);
+        return policiesByName.values().toList();
+    }
+
+    static PlacingOnHoldPolicy rejectingWith(String reason, Function3<AvailableBook, Patron, HoldDuration, Boolean> rejects) {
+        Either<Rejection, Allowance> rejection = left(Rejection.withReason(reason));
+        return (toHold, patron, holdDuration) -> rejects.apply(toHold, patron, holdDuration) ? rejection : ALLOWED;
     }
 
 }
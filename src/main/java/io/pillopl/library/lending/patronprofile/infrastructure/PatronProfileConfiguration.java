@@ -1,6 +1,7 @@
 package io.pillopl.library.lending.patronprofile.infrastructure;
 
 import io.pillopl.library.lending.patronprofile.model.PatronProfiles;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -9,6 +10,15 @@ import org.springframework.jdbc.core.JdbcTemplate;
 public class PatronProfileConfiguration {
 
     @Bean
+    @ConditionalOnProperty(name = "lending.patron-profiles.projection", havingValue = "materialized", matchIfMissing = true)
+    public PatronProfiles patronProfilesProjection(JdbcTemplate jdbcTemplate) {
+        PatronProfileProjection projection = new PatronProfileProjection();
+        projection.loadFrom(jdbcTemplate);
+        return projection;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "lending.patron-profiles.projection", havingValue = "query")
     public PatronProfiles patronProfilesReadModel(JdbcTemplate jdbcTemplate) {
         return new PatronProfileReadModel(jdbcTemplate);
     }
@@ -0,0 +1,152 @@
+package io.pillopl.library.lending.patronprofile.infrastructure;
+
+import io.pillopl.library.catalogue.BookId;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookCheckedOut;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldCanceled;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookHoldExpired;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookPlacedOnHold;
+import io.pillopl.library.lending.patron.model.PatronEvent.BookReturned;
+import io.pillopl.library.lending.patron.model.PatronId;
+import io.pillopl.library.lending.patronprofile.model.Checkout;
+import io.pillopl.library.lending.patronprofile.model.CheckoutsView;
+import io.pillopl.library.lending.patronprofile.model.Hold;
+import io.pillopl.library.lending.patronprofile.model.HoldsView;
+import io.pillopl.library.lending.patronprofile.model.PatronProfile;
+import io.pillopl.library.lending.patronprofile.model.PatronProfiles;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+import io.vavr.control.Option;
+import lombok.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * The version of a profile is the id of the last event applied to it, or a random id after loading.
+ */
+class PatronProfileProjection implements PatronProfiles {
+
+    private static final String CURRENT_HOLDS =
+            "SELECT h.hold_by_patron_id, h.book_id, h.hold_till FROM holds_sheet h " +
+                    "WHERE h.checked_out_at IS NULL AND h.expired_at IS NULL AND h.canceled_at IS NULL";
+    private static final String CURRENT_CHECKOUTS =
+            "SELECT c.checked_out_by_patron_id, c.book_id, c.checkout_till FROM checkouts_sheet c " +
+                    "WHERE c.returned_at IS NULL";
+
+    private final ConcurrentHashMap<UUID, ProfileState> profiles = new ConcurrentHashMap<>();
+
+    void loadFrom(JdbcTemplate sheets) {
+        sheets.query(CURRENT_HOLDS, rs -> {
+            Hold hold = new Hold(new BookId(rs.getObject(2, UUID.class)), instantOrNull(rs.getTimestamp(3)));
+            update(rs.getObject(1, UUID.class), UUID.randomUUID(), profile -> profile.withHold(hold));
+        });
+        sheets.query(CURRENT_CHECKOUTS, rs -> {
+            Checkout checkout = new Checkout(new BookId(rs.getObject(2, UUID.class)), instantOrNull(rs.getTimestamp(3)));
+            update(rs.getObject(1, UUID.class), UUID.randomUUID(), profile -> profile.withCheckout(checkout));
+        });
+    }
+
+    @Override
+    public PatronProfile fetchFor(PatronId patronId) {
+        ProfileState profile = profileOf(patronId);
+        return new PatronProfile(
+                new HoldsView(profile.holds.values().toList()),
+                new CheckoutsView(profile.checkouts.values().toList()));
+    }
+
+    @Override
+    public Option<String> versionOf(PatronId patronId) {
+        return Option.of(profileOf(patronId).version.toString());
+    }
+
+    @Override
+    public Option<Hold> findHold(PatronId patronId, BookId bookId) {
+        return profileOf(patronId).holds.get(bookId);
+    }
+
+    @Override
+    public Option<Checkout> findCheckout(PatronId patronId, BookId bookId) {
+        return profileOf(patronId).checkouts.get(bookId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(BookPlacedOnHold event) {
+        Hold hold = new Hold(new BookId(event.getBookId()), event.getHoldTill());
+        update(event.getPatronId(), event.getEventId(), profile -> profile.withHold(hold));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(BookHoldCanceled event) {
+        update(event.getPatronId(), event.getEventId(), profile -> profile.withoutHold(new BookId(event.getBookId())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(BookHoldExpired event) {
+        update(event.getPatronId(), event.getEventId(), profile -> profile.withoutHold(new BookId(event.getBookId())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(BookCheckedOut event) {
+        Checkout checkout = new Checkout(new BookId(event.getBookId()), event.getTill());
+        update(event.getPatronId(), event.getEventId(), profile -> profile.withoutHold(checkout.getBook()).withCheckout(checkout));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handle(BookReturned event) {
+        update(event.getPatronId(), event.getEventId(), profile -> profile.withoutCheckout(new BookId(event.getBookId())));
+    }
+
+    private ProfileState profileOf(PatronId patronId) {
+        return profiles.getOrDefault(patronId.getPatronId(), ProfileState.EMPTY);
+    }
+
+    private void update(UUID patronId, UUID eventId, UnaryOperator<ProfileState> change) {
+        profiles.compute(patronId, (id, profile) -> {
+            ProfileState changed = change.apply(profile == null ? ProfileState.EMPTY : profile).appliedIn(eventId);
+            return changed.isEmpty() ? null : changed;
+        });
+    }
+
+    private static Instant instantOrNull(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    @Value
+    private static class ProfileState {
+
+        static final ProfileState EMPTY = new ProfileState(HashMap.empty(), HashMap.empty(), new UUID(0, 0));
+
+        Map<BookId, Hold> holds;
+        Map<BookId, Checkout> checkouts;
+        UUID version;
+
+        ProfileState withHold(Hold hold) {
+            return new ProfileState(holds.put(hold.getBook(), hold), checkouts, version);
+        }
+
+        ProfileState withoutHold(BookId book) {
+            return new ProfileState(holds.remove(book), checkouts, version);
+        }
+
+        ProfileState withCheckout(Checkout checkout) {
+            return new ProfileState(holds, checkouts.put(checkout.getBook(), checkout), version);
+        }
+
+        ProfileState withoutCheckout(BookId book) {
+            return new ProfileState(holds, checkouts.remove(book), version);
+        }
+
+        ProfileState appliedIn(UUID eventId) {
+            return new ProfileState(holds, checkouts, eventId);
+        }
+
+        boolean isEmpty() {
+            return holds.isEmpty() && checkouts.isEmpty();
+        }
+    }
+}
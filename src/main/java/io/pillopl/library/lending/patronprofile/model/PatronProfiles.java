@@ -1,12 +1,27 @@
 package io.pillopl.library.lending.patronprofile.model;
 
+import io.pillopl.library.catalogue.BookId;
 import io.pillopl.library.lending.patron.model.PatronId;
+import io.vavr.control.Option;
 
 @FunctionalInterface
 public interface PatronProfiles {
 
     PatronProfile fetchFor(PatronId patronId);
 
-}
+    /**
+     * Changes whenever the profile of the patron changes; none when profiles are not versioned.
+     */
+    default Option<String> versionOf(PatronId patronId) {
+        return Option.none();
+    }
+
+    default Option<Hold> findHold(PatronId patronId, BookId bookId) {
+        return fetchFor(patronId).findHold(bookId);
+    }
 
+    default Option<Checkout> findCheckout(PatronId patronId, BookId bookId) {
+        return fetchFor(patronId).findCheckout(bookId);
+    }
 
+}
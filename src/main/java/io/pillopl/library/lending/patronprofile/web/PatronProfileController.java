@@ -9,6 +9,7 @@ import io.pillopl.library.lending.librarybranch.model.LibraryBranchId;
 import io.pillopl.library.lending.patron.application.hold.CancelHoldCommand;
 import io.pillopl.library.lending.patron.application.hold.CancelingHold;
 import io.pillopl.library.lending.patron.application.hold.PlaceOnHoldCommand;
+import io.pillopl.library.lending.patron.application.hold.PlaceOnHoldInBulkCommand;
 import io.pillopl.library.lending.patron.application.hold.PlacingOnHold;
 import io.pillopl.library.lending.patron.model.PatronId;
 import io.pillopl.library.lending.patronprofile.model.PatronProfiles;
@@ -18,11 +19,13 @@ import io.vavr.control.Try;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 import lombok.AllArgsConstructor;
 import lombok.Value;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.RepresentationModel;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -30,16 +33,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 
 import static io.vavr.API.$;
 import static io.vavr.API.Case;
 import static io.vavr.API.Match;
 import static java.util.stream.Collectors.toList;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.afford;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
 import static org.springframework.http.ResponseEntity.notFound;
 import static org.springframework.http.ResponseEntity.ok;
 
@@ -48,6 +50,8 @@ import static org.springframework.http.ResponseEntity.ok;
 @AllArgsConstructor
 class PatronProfileController {
 
+    private static final CacheControl PROFILE_CACHING = CacheControl.noCache().cachePrivate();
+
     private final PatronProfiles patronProfiles;
     private final PlacingOnHold placingOnHold;
     private final CancelingHold cancelingHold;
@@ -58,43 +62,43 @@ class PatronProfileController {
     }
 
     @GetMapping("/profiles/{patronId}/holds/")
-    ResponseEntity<CollectionModel<EntityModel<Hold>>> findHolds(@PathVariable UUID patronId) {
-        List<EntityModel<Hold>> holds = patronProfiles.fetchFor(new PatronId(patronId))
-                .getHoldsView()
-                .getCurrentHolds()
-                .toStream()
-                .map(hold -> resourceWithLinkToHoldSelf(patronId, hold))
-                .collect(toList());
-        return ResponseEntity.ok(new CollectionModel<>(holds, linkTo(methodOn(PatronProfileController.class).findHolds(patronId)).withSelfRel()));
-
+    ResponseEntity<CollectionModel<EntityModel<Hold>>> findHolds(@PathVariable UUID patronId, WebRequest request) {
+        return conditionally(patronId, request, () -> {
+            ProfileLinks links = new ProfileLinks(patronId);
+            List<EntityModel<Hold>> holds = patronProfiles.fetchFor(new PatronId(patronId))
+                    .getHoldsView()
+                    .getCurrentHolds()
+                    .toStream()
+                    .map(hold -> resourceWithLinkToHoldSelf(links, hold))
+                    .collect(toList());
+            return Option.of(new CollectionModel<>(holds, links.holds()));
+        });
     }
 
     @GetMapping("/profiles/{patronId}/holds/{bookId}")
-    ResponseEntity<EntityModel<Hold>> findHold(@PathVariable UUID patronId, @PathVariable UUID bookId) {
-        return patronProfiles.fetchFor(new PatronId(patronId))
-                .findHold(new BookId(bookId))
-                .map(hold -> ok(resourceWithLinkToHoldSelf(patronId, hold)))
-                .getOrElse(notFound().build());
-
+    ResponseEntity<EntityModel<Hold>> findHold(@PathVariable UUID patronId, @PathVariable UUID bookId, WebRequest request) {
+        return conditionally(patronId, request, () -> patronProfiles.findHold(new PatronId(patronId), new BookId(bookId))
+                .map(hold -> resourceWithLinkToHoldSelf(new ProfileLinks(patronId), hold)));
     }
 
     @GetMapping("/profiles/{patronId}/checkouts/")
-    ResponseEntity<CollectionModel<EntityModel<Checkout>>> findCheckouts(@PathVariable UUID patronId) {
-        List<EntityModel<Checkout>> checkouts = patronProfiles.fetchFor(new PatronId(patronId))
-                .getCurrentCheckouts()
-                .getCurrentCheckouts()
-                .toStream()
-                .map(checkout -> resourceWithLinkToCheckoutSelf(patronId, checkout))
-                .collect(toList());
-        return ResponseEntity.ok(new CollectionModel<>(checkouts, linkTo(methodOn(PatronProfileController.class).findHolds(patronId)).withSelfRel()));
+    ResponseEntity<CollectionModel<EntityModel<Checkout>>> findCheckouts(@PathVariable UUID patronId, WebRequest request) {
+        return conditionally(patronId, request, () -> {
+            ProfileLinks links = new ProfileLinks(patronId);
+            List<EntityModel<Checkout>> checkouts = patronProfiles.fetchFor(new PatronId(patronId))
+                    .getCurrentCheckouts()
+                    .getCurrentCheckouts()
+                    .toStream()
+                    .map(checkout -> resourceWithLinkToCheckoutSelf(links, checkout))
+                    .collect(toList());
+            return Option.of(new CollectionModel<>(checkouts, links.checkouts()));
+        });
     }
 
     @GetMapping("/profiles/{patronId}/checkouts/{bookId}")
-    ResponseEntity<EntityModel<Checkout>> findCheckout(@PathVariable UUID patronId, @PathVariable UUID bookId) {
-        return patronProfiles.fetchFor(new PatronId(patronId))
-                .findCheckout(new BookId(bookId))
-                .map(hold -> ok(resourceWithLinkToCheckoutSelf(patronId, hold)))
-                .getOrElse(notFound().build());
+    ResponseEntity<EntityModel<Checkout>> findCheckout(@PathVariable UUID patronId, @PathVariable UUID bookId, WebRequest request) {
+        return conditionally(patronId, request, () -> patronProfiles.findCheckout(new PatronId(patronId), new BookId(bookId))
+                .map(checkout -> resourceWithLinkToCheckoutSelf(new ProfileLinks(patronId), checkout)));
     }
 
     @PostMapping("/profiles/{patronId}/holds")
@@ -113,6 +117,24 @@ class PatronProfileController {
                 .getOrElse(ResponseEntity.status(INTERNAL_SERVER_ERROR).build());
     }
 
+    @PostMapping("/profiles/{patronId}/holds/bulk")
+    ResponseEntity<List<HoldPlacement>> placeHolds(@PathVariable UUID patronId, @RequestBody PlaceHoldsRequest request) {
+        Try<io.vavr.collection.Map<BookId, Result>> result = placingOnHold.placeOnHold(
+                new PlaceOnHoldInBulkCommand(
+                        Instant.now(),
+                        new PatronId(patronId),
+                        new LibraryBranchId(request.getLibraryBranchId()),
+                        io.vavr.collection.List.ofAll(request.getBookIds()).map(BookId::new),
+                        Option.of(request.getNumberOfDays())
+                )
+        );
+        return result
+                .map(placements -> ok(placements
+                        .map(placement -> new HoldPlacement(placement._1.getBookId(), placement._2))
+                        .toJavaList()))
+                .getOrElse(ResponseEntity.status(INTERNAL_SERVER_ERROR).build());
+    }
+
     @DeleteMapping("/profiles/{patronId}/holds/{bookId}")
     ResponseEntity cancelHold(@PathVariable UUID patronId, @PathVariable UUID bookId) {
         Try<Result> result = cancelingHold.cancelHold(new CancelHoldCommand(Instant.now(), new PatronId(patronId), new BookId(bookId)));
@@ -122,20 +144,25 @@ class PatronProfileController {
                 .getOrElse(ResponseEntity.status(INTERNAL_SERVER_ERROR).build());
     }
 
-    private EntityModel<Hold> resourceWithLinkToHoldSelf(UUID patronId, io.pillopl.library.lending.patronprofile.model.Hold hold) {
-        return new EntityModel<>(
-                new Hold(hold),
-                linkTo(methodOn(PatronProfileController.class).findHold(patronId, hold.getBook().getBookId()))
-                        .withSelfRel()
-                        .andAffordance(afford(methodOn(PatronProfileController.class)
-                                .cancelHold(patronId, hold.getBook().getBookId()))));
+    /**
+     * The version is read before the profile, so a response is never tagged newer than its body.
+     */
+    private <T> ResponseEntity<T> conditionally(UUID patronId, WebRequest request, Supplier<Option<T>> body) {
+        Option<String> version = patronProfiles.versionOf(new PatronId(patronId));
+        if (version.exists(request::checkNotModified)) {
+            return ResponseEntity.status(NOT_MODIFIED).cacheControl(PROFILE_CACHING).build();
+        }
+        return body.get()
+                .map(found -> ok().cacheControl(PROFILE_CACHING).body(found))
+                .getOrElse(() -> notFound().build());
     }
 
-    private EntityModel<Checkout> resourceWithLinkToCheckoutSelf(UUID patronId, io.pillopl.library.lending.patronprofile.model.Checkout checkout) {
-        return new EntityModel<>(
-                new Checkout(checkout),
-                linkTo(methodOn(PatronProfileController.class).findCheckout(patronId, checkout.getBook().getBookId()))
-                        .withSelfRel());
+    private EntityModel<Hold> resourceWithLinkToHoldSelf(ProfileLinks links, io.pillopl.library.lending.patronprofile.model.Hold hold) {
+        return new EntityModel<>(new Hold(hold), links.hold(hold.getBook().getBookId()));
+    }
+
+    private EntityModel<Checkout> resourceWithLinkToCheckoutSelf(ProfileLinks links, io.pillopl.library.lending.patronprofile.model.Checkout checkout) {
+        return new EntityModel<>(new Checkout(checkout), links.checkout(checkout.getBook().getBookId()));
     }
 }
 
@@ -146,9 +173,10 @@ class ProfileResource extends RepresentationModel {
 
     ProfileResource(UUID patronId) {
         this.patronId = patronId;
-        add(linkTo(methodOn(PatronProfileController.class).findHolds(patronId)).withRel("holds"));
-        add(linkTo(methodOn(PatronProfileController.class).findCheckouts(patronId)).withRel("checkouts"));
-        add(linkTo(methodOn(PatronProfileController.class).patronProfile(patronId)).withSelfRel());
+        ProfileLinks links = new ProfileLinks(patronId);
+        add(links.holds().withRel("holds"));
+        add(links.checkouts().withRel("checkouts"));
+        add(links.profile());
 
     }
 
@@ -186,3 +214,17 @@ class PlaceHoldRequest {
     UUID libraryBranchId;
     Integer numberOfDays;
 }
+
+@Value
+@AllArgsConstructor(onConstructor = @__(@JsonCreator))
+class PlaceHoldsRequest {
+    List<UUID> bookIds;
+    UUID libraryBranchId;
+    Integer numberOfDays;
+}
+
+@Value
+class HoldPlacement {
+    UUID bookId;
+    Result result;
+}
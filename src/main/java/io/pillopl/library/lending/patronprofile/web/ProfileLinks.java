@@ -0,0 +1,47 @@
+package io.pillopl.library.lending.patronprofile.web;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpMethod;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Links of one patron's profile, expanded from a profile URI resolved once per request.
+ */
+class ProfileLinks {
+
+    private final String profile;
+    private final String holds;
+    private final String checkouts;
+
+    ProfileLinks(UUID patronId) {
+        this.profile = linkTo(PatronProfileController.class).slash("profiles").slash(patronId).toString();
+        this.holds = profile + "/holds/";
+        this.checkouts = profile + "/checkouts/";
+    }
+
+    Link profile() {
+        return new Link(profile);
+    }
+
+    Link holds() {
+        return new Link(holds);
+    }
+
+    Link checkouts() {
+        return new Link(checkouts);
+    }
+
+    Link hold(UUID bookId) {
+        return new Link(holds + bookId)
+                .andAffordance("cancelHold", HttpMethod.DELETE, ResolvableType.NONE, Collections.emptyList(), ResolvableType.NONE);
+    }
+
+    Link checkout(UUID bookId) {
+        return new Link(checkouts + bookId);
+    }
+}
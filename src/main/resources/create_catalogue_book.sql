@@ -10,7 +10,9 @@ CREATE TABLE IF NOT EXISTS catalogue_book_instance (
   isbn VARCHAR(100) NOT NULL,
   book_id UUID NOT NULL);
 
-CREATE SEQUENCE catalogue_book_seq;
-CREATE SEQUENCE catalogue_book_instance_seq;
+CREATE INDEX IF NOT EXISTS catalogue_book_isbn_idx ON catalogue_book (isbn);
+
+CREATE SEQUENCE IF NOT EXISTS catalogue_book_seq;
+CREATE SEQUENCE IF NOT EXISTS catalogue_book_instance_seq;
 
 
@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS daily_sheet_job_checkpoint (
+  job VARCHAR(50) NOT NULL,
+  run_date DATE NOT NULL,
+  shard INTEGER NOT NULL,
+  shards INTEGER NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  last_patron_id UUID,
+  updated_at TIMESTAMP NOT NULL,
+  PRIMARY KEY (job, run_date, shard, shards));
@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS domain_event_outbox (
+id BIGINT IDENTITY PRIMARY KEY,
+  event_id UUID NOT NULL UNIQUE,
+  aggregate_id UUID,
+  occurred_at TIMESTAMP,
+  stored_at TIMESTAMP NOT NULL,
+  payload BLOB NOT NULL,
+  claimed_by UUID,
+  claimed_until TIMESTAMP,
+  published_at TIMESTAMP);
+
+CREATE INDEX IF NOT EXISTS domain_event_outbox_to_publish_idx
+  ON domain_event_outbox (published_at, id);
+
+CREATE INDEX IF NOT EXISTS domain_event_outbox_aggregate_idx
+  ON domain_event_outbox (aggregate_id, published_at, id);
+
+CREATE INDEX IF NOT EXISTS domain_event_outbox_claimed_by_idx
+  ON domain_event_outbox (claimed_by);
@@ -11,4 +11,4 @@ CREATE TABLE IF NOT EXISTS book_database_entity (
   on_hold_till TIMESTAMP,
   version INTEGER);
 
-CREATE SEQUENCE book_database_entity_seq;
+CREATE SEQUENCE IF NOT EXISTS book_database_entity_seq INCREMENT BY 50;
@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS patron_event (
+  patron_id UUID NOT NULL,
+  sequence INTEGER NOT NULL,
+  event_type VARCHAR(100) NOT NULL,
+  occurred_at TIMESTAMP NOT NULL,
+  payload BLOB NOT NULL,
+  PRIMARY KEY (patron_id, sequence));
+
+CREATE TABLE IF NOT EXISTS patron_snapshot (
+  patron_id UUID PRIMARY KEY,
+  sequence INTEGER NOT NULL,
+  state BLOB NOT NULL);
@@ -23,6 +23,6 @@ id INTEGER IDENTITY PRIMARY KEY,
   canceled_at TIMESTAMP,
   checked_out_at TIMESTAMP);
 
-CREATE SEQUENCE holds_sheet_seq;
-CREATE SEQUENCE checkouts_sheet_seq;
+CREATE SEQUENCE IF NOT EXISTS holds_sheet_seq;
+CREATE SEQUENCE IF NOT EXISTS checkouts_sheet_seq;
 
@@ -0,0 +1,17 @@
+CREATE INDEX IF NOT EXISTS holds_sheet_to_expire_idx
+  ON holds_sheet (status, hold_till, hold_by_patron_id, book_id, hold_at_branch);
+
+CREATE INDEX IF NOT EXISTS holds_sheet_patron_profile_idx
+  ON holds_sheet (hold_by_patron_id, checked_out_at, expired_at, canceled_at, book_id, hold_till);
+
+CREATE INDEX IF NOT EXISTS holds_sheet_book_patron_idx
+  ON holds_sheet (book_id, hold_by_patron_id);
+
+CREATE INDEX IF NOT EXISTS checkouts_sheet_to_overdue_idx
+  ON checkouts_sheet (status, checkout_till, checked_out_by_patron_id, book_id, checked_out_at_branch);
+
+CREATE INDEX IF NOT EXISTS checkouts_sheet_patron_profile_idx
+  ON checkouts_sheet (checked_out_by_patron_id, returned_at, book_id, checkout_till);
+
+CREATE INDEX IF NOT EXISTS checkouts_sheet_book_patron_idx
+  ON checkouts_sheet (book_id, checked_out_by_patron_id);
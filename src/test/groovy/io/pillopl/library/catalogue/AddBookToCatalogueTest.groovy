@@ -1,11 +1,14 @@
 package io.pillopl.library.catalogue
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import io.pillopl.library.commons.commands.Result
 import io.pillopl.library.commons.events.DomainEvents
 import io.vavr.control.Option
 import io.vavr.control.Try
 import spock.lang.Specification
 
+import java.time.Duration
+
 import static io.pillopl.library.catalogue.BookFixture.DDD_ISBN_STR
 import static io.pillopl.library.catalogue.BookType.Restricted
 
@@ -56,6 +59,28 @@ class AddBookToCatalogueTest extends Specification {
 
     }
 
+    def 'should not add a book with a wrong isbn checksum'() {
+        given:
+            databaseWorks()
+        when:
+            Try<Result> result = catalogue.addBook("Eric Evans", "DDD", "0321125216")
+        then:
+            result.isFailure()
+    }
+
+    def 'should find a book added through the cache without going to the database'() {
+        given:
+            CatalogueDatabase database = Mock()
+            Catalogue cachedCatalogue = new Catalogue(database, domainEvents, BooksCache.bounded(100, Duration.ofMinutes(1), new SimpleMeterRegistry()))
+        and:
+            cachedCatalogue.addBook("Eric Evans", "DDD", DDD_ISBN_STR)
+        when:
+            Try<Result> result = cachedCatalogue.addBookInstance(DDD_ISBN_STR, Restricted)
+        then:
+            result.get() == Result.Success
+            0 * database.findBy(_)
+    }
+
     def 'should fail when adding a book if database fails'() {
         given:
             databaseDoesNotWork()
@@ -67,6 +67,39 @@ class BookTitleAuthorISBNTest extends Specification {
         then:
             thrown(IllegalArgumentException)
     }
-}
 
+    def "isbn-13 should be accepted"() {
+        when:
+            ISBN isbn = new ISBN("9780321125217")
+        then:
+            isbn.isbn == "9780321125217"
+    }
+
+    def "isbn with a wrong number of digits or a misplaced X should not be accepted"() {
+        when:
+            new ISBN(wrong)
+        then:
+            thrown(IllegalArgumentException)
+        where:
+            wrong << ["123412341", "12341234141", "123412341|", "12341234X4", "978032112521X"]
+    }
 
+    def "should verify checksums of isbn-10 and isbn-13"() {
+        expect:
+            ISBN.hasValidChecksum(isbn) == valid
+        where:
+            isbn            || valid
+            "0321125215"    || true
+            "123412341X"    || true
+            "0321125216"    || false
+            "9780321125217" || true
+            "9780321125218" || false
+    }
+
+    def "isbn with a wrong checksum should not be accepted for a new book"() {
+        when:
+            Book.newBook("1234123414", "Eric Evans", "DDD")
+        then:
+            thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,174 @@
+package io.pillopl.library.catalogue
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.pillopl.library.commons.events.DomainEvents
+import io.vavr.collection.HashSet
+import io.vavr.collection.List
+import io.vavr.collection.Set
+import io.vavr.control.Try
+import org.springframework.transaction.support.TransactionCallback
+import org.springframework.transaction.support.TransactionOperations
+import spock.lang.Specification
+
+import static io.pillopl.library.catalogue.BookFixture.DDD_ISBN_STR
+import static io.pillopl.library.catalogue.BookType.Circulating
+import static io.pillopl.library.catalogue.BookType.Restricted
+import static io.pillopl.library.catalogue.CatalogueImport.Format.CSV
+import static io.pillopl.library.catalogue.CatalogueImport.Format.JSON_LINES
+
+class CatalogueImportTest extends Specification {
+
+    static final String GOOS_ISBN = "0321503627"
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+    CatalogueDatabase database = Mock()
+    DomainEvents domainEvents = Mock()
+    TransactionOperations inTransaction = { TransactionCallback callback -> callback.doInTransaction(null) } as TransactionOperations
+
+    def 'should batch insert books and instances of a chunk and announce the instances at once'() {
+        given:
+            CatalogueImport catalogueImport = catalogueImport(10)
+        when:
+            Try<CatalogueImport.Report> report = catalogueImport.importFrom(new StringReader(
+                    "book,${GOOS_ISBN},\"Freeman, Pryce\",Growing Object-Oriented Software\n" +
+                    "instance,${GOOS_ISBN},Circulating\n" +
+                    "instance,${GOOS_ISBN},Restricted\n"), CSV)
+        then:
+            1 * database.saveNew({ it instanceof List && it.map { book -> book.author.name } == List.of("Freeman, Pryce") })
+            1 * database.existing(HashSet.of(new ISBN(GOOS_ISBN))) >> HashSet.empty()
+            1 * database.saveNewInstances({ it.map { instance -> instance.bookType } == List.of(Circulating, Restricted) })
+            1 * domainEvents.publish({ it instanceof BookInstancesAddedToCatalogue && it.instances.size() == 2 })
+        and:
+            report.get().books == 1
+            report.get().instances == 2
+            report.get().rejected == 0
+    }
+
+    def 'should import in chunks of the configured size'() {
+        given:
+            CatalogueImport catalogueImport = catalogueImport(2)
+            database.existing(_ as Set) >> { Set<ISBN> isbns -> isbns }
+        when:
+            catalogueImport.importFrom(new StringReader(
+                    "instance,${DDD_ISBN_STR},Restricted\n" +
+                    "instance,${DDD_ISBN_STR},Restricted\n" +
+                    "instance,${DDD_ISBN_STR},Circulating\n"), CSV)
+        then:
+            2 * domainEvents.publish(_ as BookInstancesAddedToCatalogue)
+            meterRegistry.get("catalogue_import_records").tags("kind", "instance", "outcome", "imported").counter().count() == 3
+            meterRegistry.get("catalogue_import_chunk").timer().count() == 2
+    }
+
+    def 'should reject malformed records and instances of unknown books without stopping the import'() {
+        given:
+            CatalogueImport catalogueImport = catalogueImport(10)
+            database.existing(_ as Set) >> HashSet.of(new ISBN(DDD_ISBN_STR))
+        when:
+            Try<CatalogueImport.Report> report = catalogueImport.importFrom(new StringReader(
+                    '# a comment\n' +
+                    '{"type":"book","isbn":"not an isbn","author":"Eric Evans","title":"DDD"}\n' +
+                    '{"type":"instance","isbn":"' + GOOS_ISBN + '","bookType":"Restricted"}\n' +
+                    '{"type":"instance","isbn":"' + DDD_ISBN_STR + '","bookType":"Restricted"}\n' +
+                    '{"type":"magazine"}\n'), JSON_LINES)
+        then:
+            report.get().instances == 1
+            report.get().rejected == 3
+            report.get().rejections.map { it.substring(0, it.indexOf(':')) } == List.of("line 2", "line 5", "line 3")
+            meterRegistry.get("catalogue_import_records").tags("outcome", "rejected").counter().count() == 3
+    }
+
+    def 'should skip books already in the catalogue or repeated in the import'() {
+        given:
+            CatalogueImport catalogueImport = catalogueImport(10)
+            database.existing(_ as Set) >> HashSet.of(new ISBN(DDD_ISBN_STR))
+        when:
+            Try<CatalogueImport.Report> report = catalogueImport.importFrom(new StringReader(
+                    "book,${DDD_ISBN_STR},Eric Evans,Domain-Driven Design\n" +
+                    "book,${GOOS_ISBN},Steve Freeman,GOOS\n" +
+                    "book,${GOOS_ISBN},Nat Pryce,GOOS\n" +
+                    "instance,${GOOS_ISBN},Circulating\n"), CSV)
+        then:
+            1 * database.saveNew({ it instanceof List && it.map { book -> book.author.name } == List.of("Steve Freeman") })
+            1 * database.saveNewInstances({ it.size() == 1 })
+        and:
+            report.get().books == 1
+            report.get().instances == 1
+            report.get().rejected == 2
+            report.get().rejections == List.of(
+                    "line 1: Book with ISBN ${DDD_ISBN_STR} already in the catalogue".toString(),
+                    "line 3: Book with ISBN ${GOOS_ISBN} repeated in the import".toString())
+    }
+
+    def 'should reject books with a title or an author longer than the catalogue holds'() {
+        given:
+            CatalogueImport catalogueImport = catalogueImport(10)
+            database.existing(_ as Set) >> HashSet.empty()
+        when:
+            Try<CatalogueImport.Report> report = catalogueImport.importFrom(new StringReader(
+                    "book,${GOOS_ISBN},Steve Freeman,${'T' * 101}\n" +
+                    "book,${GOOS_ISBN},${'A' * 101},GOOS\n" +
+                    "book,${DDD_ISBN_STR},${'A' * 100},${'T' * 100}\n"), CSV)
+        then:
+            report.get().books == 1
+            report.get().rejected == 2
+            report.get().rejections == List.of(
+                    "line 1: Title longer than 100 characters",
+                    "line 2: Author longer than 100 characters")
+    }
+
+    def 'should reject records of a chunk that failed to be saved and import the following chunks'() {
+        given:
+            CatalogueImport catalogueImport = catalogueImport(2)
+            database.existing(_ as Set) >> { Set<ISBN> isbns -> isbns }
+            database.saveNewInstances(_ as List) >> { throw new IllegalStateException("connection lost") } >> null
+        when:
+            Try<CatalogueImport.Report> report = catalogueImport.importFrom(new StringReader(
+                    "instance,${DDD_ISBN_STR},Restricted\n" +
+                    "instance,${DDD_ISBN_STR},Restricted\n" +
+                    "instance,${DDD_ISBN_STR},Circulating\n"), CSV)
+        then:
+            1 * domainEvents.publish(_ as BookInstancesAddedToCatalogue)
+        and:
+            report.isSuccess()
+            report.get().instances == 1
+            report.get().rejected == 2
+            report.get().rejections == List.of("line 1: Chunk failed: connection lost", "line 2: Chunk failed: connection lost")
+    }
+
+    def 'should announce instances of a chunk only once the chunk has committed'() {
+        given:
+            java.util.List<String> steps = []
+            inTransaction = { TransactionCallback callback ->
+                def result = callback.doInTransaction(null)
+                steps << "committed"
+                result
+            } as TransactionOperations
+            CatalogueImport catalogueImport = catalogueImport(10)
+            database.existing(_ as Set) >> { Set<ISBN> isbns -> isbns }
+            domainEvents.publish(_ as BookInstancesAddedToCatalogue) >> { steps << "announced" }
+        when:
+            catalogueImport.importFrom(new StringReader("instance,${DDD_ISBN_STR},Restricted\n"), CSV)
+        then:
+            steps == ["committed", "announced"]
+    }
+
+    def 'should not announce instances of a chunk that failed to commit'() {
+        given:
+            inTransaction = { TransactionCallback callback ->
+                callback.doInTransaction(null)
+                throw new IllegalStateException("commit failed")
+            } as TransactionOperations
+            CatalogueImport catalogueImport = catalogueImport(10)
+            database.existing(_ as Set) >> { Set<ISBN> isbns -> isbns }
+        when:
+            Try<CatalogueImport.Report> report = catalogueImport.importFrom(new StringReader("instance,${DDD_ISBN_STR},Restricted\n"), CSV)
+        then:
+            0 * domainEvents.publish(_)
+            report.get().instances == 0
+            report.get().rejections == List.of("line 1: Chunk failed: commit failed")
+    }
+
+    CatalogueImport catalogueImport(int chunkSize) {
+        return new CatalogueImport(database, domainEvents, inTransaction, chunkSize, 2, meterRegistry)
+    }
+}
@@ -0,0 +1,114 @@
+package io.pillopl.library.commons.commands
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.pillopl.library.commons.aggregates.AggregateRootIsStale
+import io.vavr.control.Try
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.function.Supplier
+
+class CommandRetriesTest extends Specification {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+    UUID aggregateId = UUID.randomUUID()
+
+    def 'should run the command again until it does not conflict'() {
+        given:
+            CommandRetries retries = new CommandRetries(3, Duration.ZERO, Duration.ZERO, 10, meterRegistry)
+        and:
+            Supplier<Try<String>> command = conflicting(2, "done")
+        when:
+            Try<String> result = retries.run("place-on-hold", "book", aggregateId, command)
+        then:
+            result.get() == "done"
+            conflicts() == 2
+            meterRegistry.get("command_retries").tag("command", "place-on-hold").counter().count() == 2
+            meterRegistry.get("command_aggregate_conflicts")
+                    .tags("aggregate_type", "book", "aggregate", aggregateId.toString()).counter().count() == 2
+            meterRegistry.find("command_retries_exhausted").counter() == null
+    }
+
+    def 'should give up after the maximum number of attempts'() {
+        given:
+            CommandRetries retries = new CommandRetries(3, Duration.ofMillis(1), Duration.ofMillis(2), 10, meterRegistry)
+        when:
+            Try<String> result = retries.run("place-on-hold", "book", aggregateId, conflicting(5, "done"))
+        then:
+            result.getCause() instanceof AggregateRootIsStale
+            conflicts() == 3
+            meterRegistry.get("command_retries_exhausted").tag("command", "place-on-hold").counter().count() == 1
+    }
+
+    def 'should not run the command again when it failed for another reason'() {
+        given:
+            CommandRetries retries = new CommandRetries(3, Duration.ZERO, Duration.ZERO, 10, meterRegistry)
+        and:
+            int attempts = 0
+        when:
+            Try<String> result = retries.run("place-on-hold", "book", aggregateId, { attempts++; Try.failure(new IllegalStateException()) } as Supplier)
+        then:
+            result.isFailure()
+            attempts == 1
+            meterRegistry.find("command_conflicts").counter() == null
+    }
+
+    def 'should not run the command again within a transaction of its caller'() {
+        given:
+            CommandRetries retries = new CommandRetries(3, Duration.ZERO, Duration.ZERO, 10, meterRegistry)
+        and:
+            TransactionSynchronizationManager.setActualTransactionActive(true)
+        when:
+            Try<String> result = retries.run("place-on-hold", "book", aggregateId, conflicting(1, "done"))
+        then:
+            result.getCause() instanceof AggregateRootIsStale
+            conflicts() == 1
+            meterRegistry.find("command_retries").counter() == null
+        cleanup:
+            TransactionSynchronizationManager.setActualTransactionActive(false)
+    }
+
+    def 'should count conflicts of at most the tracked number of aggregates'() {
+        given:
+            CommandRetries retries = new CommandRetries(1, Duration.ZERO, Duration.ZERO, 2, meterRegistry)
+        when:
+            3.times { retries.run("place-on-hold", "book", UUID.randomUUID(), conflicting(1, "done")) }
+            retries.cleanUp()
+        then:
+            conflicts() == 3
+            meterRegistry.find("command_aggregate_conflicts").counters().size() == 2
+    }
+
+    def 'should track an aggregate that starts conflicting often once others are tracked'() {
+        given:
+            CommandRetries retries = new CommandRetries(1, Duration.ZERO, Duration.ZERO, 2, meterRegistry)
+        and:
+            2.times { retries.run("place-on-hold", "book", UUID.randomUUID(), conflicting(1, "done")) }
+        when:
+            10.times { retries.run("place-on-hold", "book", aggregateId, conflicting(1, "done")) }
+            retries.cleanUp()
+        then:
+            meterRegistry.find("command_aggregate_conflicts").tag("aggregate", aggregateId.toString()).counter() != null
+            meterRegistry.find("command_aggregate_conflicts").counters().size() <= 2
+    }
+
+    def 'should never back off longer than the maximum backoff'() {
+        given:
+            CommandRetries retries = new CommandRetries(10, Duration.ofMillis(10), Duration.ofMillis(50), 10, meterRegistry)
+        expect:
+            (1..10).every { attempt -> retries.backoffNanos(attempt) <= Duration.ofMillis(50).toNanos() }
+            retries.backoffNanos(1) <= Duration.ofMillis(10).toNanos()
+    }
+
+    double conflicts() {
+        return meterRegistry.get("command_conflicts").tag("command", "place-on-hold").counter().count()
+    }
+
+    Supplier<Try<String>> conflicting(int times, String result) {
+        int attempts = 0
+        return {
+            attempts++ < times ? Try.<String> failure(new AggregateRootIsStale("stale")) : Try.success(result)
+        } as Supplier<Try<String>>
+    }
+}
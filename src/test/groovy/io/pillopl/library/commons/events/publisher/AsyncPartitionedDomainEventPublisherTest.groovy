@@ -0,0 +1,111 @@
+package io.pillopl.library.commons.events.publisher
+
+import groovy.transform.EqualsAndHashCode
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.pillopl.library.commons.events.DomainEvent
+import io.pillopl.library.commons.events.DomainEvents
+import spock.lang.Specification
+
+import java.time.Instant
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+
+class AsyncPartitionedDomainEventPublisherTest extends Specification {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+    List<DomainEvent> forwarded = new CopyOnWriteArrayList<>()
+
+    def 'should forward events of each aggregate in publishing order'() {
+        given:
+            AsyncPartitionedDomainEventPublisher publisher = publisher({ DomainEvent event -> forwarded.add(event) } as DomainEvents, 4, 10)
+            List<UUID> aggregates = (1..8).collect { UUID.randomUUID() }
+        when:
+            (1..50).each { sequence -> aggregates.each { publisher.publish(event(it, sequence)) } }
+        and:
+            publisher.close()
+        then:
+            forwarded.size() == 400
+            aggregates.every { id -> forwarded.findAll { it.aggregateId == id }*.sequence == (1..50).toList() }
+    }
+
+    def 'should keep forwarding after a listener fails'() {
+        given:
+            UUID failing = UUID.randomUUID()
+            UUID healthy = UUID.randomUUID()
+            AsyncPartitionedDomainEventPublisher publisher = publisher({ DomainEvent event ->
+                if (event.aggregateId == failing) {
+                    throw new IllegalStateException("listener failed")
+                }
+                forwarded.add(event)
+            } as DomainEvents, 1, 10)
+        when:
+            publisher.publish(event(failing, 1))
+            publisher.publish(event(healthy, 1))
+        and:
+            publisher.close()
+        then:
+            forwarded*.aggregateId == [healthy]
+            meterRegistry.get("domain_events_async_failed").counter().count() == 1
+    }
+
+    def 'should block publishers when the partition queue is full'() {
+        given:
+            CountDownLatch listenerReleased = new CountDownLatch(1)
+            AsyncPartitionedDomainEventPublisher publisher = publisher({ DomainEvent event ->
+                listenerReleased.await()
+                forwarded.add(event)
+            } as DomainEvents, 1, 1)
+            UUID aggregate = UUID.randomUUID()
+        and:
+            publisher.publish(event(aggregate, 1))
+            sleep(200)
+            publisher.publish(event(aggregate, 2))
+        when:
+            Thread blockedPublisher = Thread.start { publisher.publish(event(aggregate, 3)) }
+            blockedPublisher.join(200)
+        then:
+            blockedPublisher.isAlive()
+        when:
+            listenerReleased.countDown()
+            blockedPublisher.join()
+            publisher.close()
+        then:
+            forwarded*.sequence == [1, 2, 3]
+    }
+
+    def 'should drain queued events on close'() {
+        given:
+            AsyncPartitionedDomainEventPublisher publisher = publisher({ DomainEvent event ->
+                sleep(5)
+                forwarded.add(event)
+            } as DomainEvents, 2, 100)
+        when:
+            (1..40).each { publisher.publish(event(UUID.randomUUID(), it)) }
+        and:
+            publisher.close()
+        then:
+            forwarded.size() == 40
+            meterRegistry.get("domain_events_async_queue_depth").gauge().value() == 0
+        when:
+            publisher.publish(event(UUID.randomUUID(), 41))
+        then:
+            forwarded.size() == 41
+    }
+
+    AsyncPartitionedDomainEventPublisher publisher(DomainEvents delegate, int partitions, int queueCapacity) {
+        return new AsyncPartitionedDomainEventPublisher(delegate, partitions, queueCapacity, meterRegistry)
+    }
+
+    static SequencedEvent event(UUID aggregateId, int sequence) {
+        return new SequencedEvent(aggregateId: aggregateId, sequence: sequence)
+    }
+}
+
+@EqualsAndHashCode
+class SequencedEvent implements DomainEvent {
+
+    UUID eventId = UUID.randomUUID()
+    UUID aggregateId
+    Instant when = Instant.now()
+    int sequence
+}
@@ -0,0 +1,76 @@
+package io.pillopl.library.commons.events.publisher
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.context.ApplicationListener
+import org.springframework.context.PayloadApplicationEvent
+import org.springframework.context.event.ApplicationListenerMethodAdapter
+import org.springframework.context.event.EventListener
+import org.springframework.transaction.event.TransactionalEventListener
+import org.springframework.transaction.event.TransactionalEventListenerFactory
+import spock.lang.Specification
+
+class TimedApplicationEventMulticasterTest extends Specification {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+    TimedApplicationEventMulticaster multicaster = new TimedApplicationEventMulticaster(meterRegistry)
+
+    def 'should time listeners of domain events per listener and event type'() {
+        given:
+            multicaster.addApplicationListener({ event -> } as ApplicationListener)
+        when:
+            2.times { multicaster.multicastEvent(new PayloadApplicationEvent(this, new SequencedEvent(aggregateId: UUID.randomUUID()))) }
+        then:
+            meterRegistry.get("domain_event_listener").tag("event", "SequencedEvent").timer().count() == 2
+    }
+
+    def 'should not time listeners of other events'() {
+        given:
+            multicaster.addApplicationListener({ event -> } as ApplicationListener)
+        when:
+            multicaster.multicastEvent(new PayloadApplicationEvent(this, "not a domain event"))
+        then:
+            meterRegistry.find("domain_event_listener").timers().isEmpty()
+    }
+
+    def 'should name event listener methods after their class and method'() {
+        given:
+            ApplicationListenerMethodAdapter listener = new ApplicationListenerMethodAdapter(
+                    "sheets", SheetsListener, SheetsListener.getMethod("handle", SequencedEvent))
+        expect:
+            TimedApplicationEventMulticaster.nameOf(listener) == "SheetsListener.handle"
+    }
+
+    def 'should name transactional event listener methods after their class and method'() {
+        given:
+            ApplicationListener<?> listener = new TransactionalEventListenerFactory().createApplicationListener(
+                    "profiles", ProfilesListener, ProfilesListener.getMethod("apply", SequencedEvent))
+        expect:
+            TimedApplicationEventMulticaster.nameOf(listener) == "ProfilesListener.apply"
+    }
+
+    def 'should name other listeners after their class'() {
+        expect:
+            TimedApplicationEventMulticaster.nameOf(new ProfilesApplicationListener()) == "ProfilesApplicationListener"
+    }
+}
+
+class SheetsListener {
+
+    @EventListener
+    void handle(SequencedEvent event) {
+    }
+}
+
+class ProfilesListener {
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void apply(SequencedEvent event) {
+    }
+}
+
+class ProfilesApplicationListener implements ApplicationListener<PayloadApplicationEvent> {
+
+    @Override
+    void onApplicationEvent(PayloadApplicationEvent event) {
+    }
+}
@@ -0,0 +1,64 @@
+package io.pillopl.library.commons.jdbc
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+
+import javax.sql.DataSource
+import java.sql.Connection
+import java.sql.SQLException
+import java.sql.SQLTransientConnectionException
+import java.time.Duration
+
+class BulkheadDataSourceTest extends Specification {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+    DataSource database = Stub(DataSource) {
+        getConnection() >> { Stub(Connection) }
+    }
+
+    def 'should reject a connection above the limit once the acquire timeout passes'() {
+        given:
+            BulkheadDataSource bulkhead = new BulkheadDataSource(database, 2, Duration.ofMillis(10), meterRegistry)
+        and:
+            bulkhead.getConnection()
+            bulkhead.getConnection()
+        when:
+            bulkhead.getConnection()
+        then:
+            thrown(SQLTransientConnectionException)
+            meterRegistry.get("jdbc_bulkhead_rejected").counter().count() == 1
+            meterRegistry.get("jdbc_bulkhead_in_use").gauge().value() == 2
+    }
+
+    def 'should give the permit back when a connection is closed, only once'() {
+        given:
+            BulkheadDataSource bulkhead = new BulkheadDataSource(database, 1, Duration.ofMillis(10), meterRegistry)
+        when:
+            Connection connection = bulkhead.getConnection()
+            connection.close()
+            connection.close()
+        then:
+            meterRegistry.get("jdbc_bulkhead_in_use").gauge().value() == 0
+        when:
+            bulkhead.getConnection()
+        then:
+            noExceptionThrown()
+        when:
+            bulkhead.getConnection()
+        then:
+            thrown(SQLTransientConnectionException)
+    }
+
+    def 'should give the permit back when the database does not hand out a connection'() {
+        given:
+            DataSource failing = Stub(DataSource) {
+                getConnection() >> { throw new SQLException("database down") }
+            }
+            BulkheadDataSource bulkhead = new BulkheadDataSource(failing, 1, Duration.ofMillis(10), meterRegistry)
+        when:
+            bulkhead.getConnection()
+        then:
+            thrown(SQLException)
+            meterRegistry.get("jdbc_bulkhead_in_use").gauge().value() == 0
+    }
+}
@@ -2,11 +2,13 @@ package io.pillopl.library.lending.book.application
 
 import io.pillopl.library.catalogue.BookId
 import io.pillopl.library.catalogue.BookInstanceAddedToCatalogue
+import io.pillopl.library.catalogue.BookInstancesAddedToCatalogue
 import io.pillopl.library.catalogue.BookType
 import io.pillopl.library.lending.book.model.AvailableBook
 import io.pillopl.library.lending.book.model.Book
 import io.pillopl.library.lending.book.model.BookFixture
 import io.pillopl.library.lending.book.model.BookRepository
+import io.vavr.collection.List
 import io.vavr.control.Option
 import spock.lang.Specification
 
@@ -29,6 +31,18 @@ class CreatingAvailableBookForLendingTest extends Specification {
             book.get().bookInformation.bookType == BookType.Restricted
 
     }
+
+    def 'should create new available books for lending when a chunk of book instances was added to catalogue'() {
+        given:
+            BookId anotherBookId = BookFixture.anyBookId()
+        when:
+            handler.handle(new BookInstancesAddedToCatalogue(UUID.randomUUID(), List.of(
+                    new BookInstanceAddedToCatalogue("isbn", BookType.Restricted, bookId.getBookId()),
+                    new BookInstanceAddedToCatalogue("isbn", BookType.Circulating, anotherBookId.getBookId()))))
+        then:
+            bookRepository.findBy(bookId).get() instanceof AvailableBook
+            bookRepository.findBy(anotherBookId).get().bookInformation.bookType == BookType.Circulating
+    }
 }
 
 
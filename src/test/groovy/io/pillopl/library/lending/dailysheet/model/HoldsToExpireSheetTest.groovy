@@ -5,6 +5,7 @@ import io.pillopl.library.lending.librarybranch.model.LibraryBranchId
 import io.pillopl.library.lending.patron.model.PatronEvent
 import io.pillopl.library.lending.patron.model.PatronId
 import io.vavr.collection.List
+import io.vavr.control.Option
 import spock.lang.Specification
 
 import static io.pillopl.library.lending.book.model.BookFixture.anyBookId
@@ -43,6 +44,41 @@ class HoldsToExpireSheetTest extends Specification {
             }
     }
 
+    def 'should never split holds of one patron between batches, even when they are split between pages'() {
+        given:
+            ExpiredHold first = new ExpiredHold(bookId, patronId, libraryBranchId)
+            ExpiredHold second = new ExpiredHold(anotherBookId, patronId, anotherLibraryBranchId)
+            ExpiredHold third = new ExpiredHold(bookId, anotherPatronId, libraryBranchId)
+        and:
+            java.util.List<Option<ExpiredHold>> pagesRequested = []
+            Map<Option<ExpiredHold>, List<ExpiredHold>> pages = [(Option.none()): List.of(first), (Option.of(first)): List.of(second, third)]
+            HoldsToExpireSheet sheet = HoldsToExpireSheet.pagedFrom({ Option<ExpiredHold> lastRow ->
+                pagesRequested << lastRow
+                pages.getOrDefault(lastRow, List.empty())
+            } as SheetPages)
+        and:
+            java.util.List<List<PatronEvent.BookHoldExpired>> batches = []
+        when:
+            sheet.forEachBatchOfPatrons(1, { batches << it })
+        then:
+            pagesRequested == [Option.none(), Option.of(first), Option.of(third)]
+            batches.size() == 2
+            batches[0].map { it.patronId }.distinct() == List.of(patronId.patronId)
+            batches[0].size() == 2
+            batches[1].map { it.patronId } == List.of(anotherPatronId.patronId)
+    }
+
+    def 'should be read only once'() {
+        given:
+            HoldsToExpireSheet sheet = sheet(patronId, anotherPatronId, bookId, anotherBookId, libraryBranchId, anotherLibraryBranchId)
+        and:
+            sheet.count()
+        when:
+            sheet.forEachEvent({})
+        then:
+            thrown(IllegalStateException)
+    }
+
     private HoldsToExpireSheet sheet(PatronId patronId, PatronId anotherPatronId, BookId bookId, BookId anotherBookId, LibraryBranchId libraryBranchId, LibraryBranchId anotherBranchId) {
         new HoldsToExpireSheet(List.of(
                 new ExpiredHold(bookId, patronId, libraryBranchId),
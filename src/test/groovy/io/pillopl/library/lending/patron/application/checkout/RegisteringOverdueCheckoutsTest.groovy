@@ -4,6 +4,7 @@ import io.pillopl.library.commons.commands.BatchResult
 import io.pillopl.library.lending.dailysheet.model.CheckoutsToOverdueSheet
 import io.pillopl.library.lending.dailysheet.model.DailySheet
 import io.pillopl.library.lending.dailysheet.model.OverdueCheckout
+import io.pillopl.library.lending.dailysheet.model.SheetShard
 import io.pillopl.library.lending.patron.model.PatronEvent
 import io.pillopl.library.lending.patron.model.PatronId
 import io.pillopl.library.lending.patron.model.Patrons
@@ -53,6 +54,22 @@ class RegisteringOverdueCheckoutsTest extends Specification {
 
     }
 
+    def 'should register overdue checkouts of a shard and report every processed patron'() {
+        given:
+            DailySheet sheet = Stub()
+            SheetShard shard = SheetShard.of(0, 2)
+            sheet.queryForCheckoutsToOverdue(shard) >> overdueCheckoutsBy(patronWithOverdueCheckouts, anotherPatronWithOverdueCheckouts)
+        and:
+            checkoutsWillBeMarkedAsOverdueForBothPatrons()
+        and:
+            java.util.List<PatronId> processed = []
+        when:
+            Try<BatchResult> result = new RegisteringOverdueCheckout(sheet, repository).registerOverdueCheckouts(shard, { processed << it })
+        then:
+            result.get() == BatchResult.FullSuccess
+            processed == [patronWithOverdueCheckouts, anotherPatronWithOverdueCheckouts]
+    }
+
     void registeringOverdueCheckoutWillFailForSecondPatron() {
         repository.publish(_ as PatronEvent) >>> [regularPatron(), { throw new IllegalStateException() }]
     }
@@ -4,9 +4,11 @@ import io.pillopl.library.commons.commands.BatchResult
 import io.pillopl.library.lending.dailysheet.model.DailySheet
 import io.pillopl.library.lending.dailysheet.model.ExpiredHold
 import io.pillopl.library.lending.dailysheet.model.HoldsToExpireSheet
+import io.pillopl.library.lending.dailysheet.model.SheetShard
 import io.pillopl.library.lending.patron.model.PatronEvent
 import io.pillopl.library.lending.patron.model.PatronId
 import io.pillopl.library.lending.patron.model.Patrons
+import io.vavr.collection.List
 import io.vavr.control.Try
 import spock.lang.Specification
 
@@ -23,7 +25,7 @@ class ExpiringHoldsTest extends Specification {
     PatronId patronWithExpiringHolds = anyPatronId()
     PatronId anotherPatronWithExpiringHolds = anyPatronId()
 
-    ExpiringHolds expiring = new ExpiringHolds(dailySheet, repository)
+    ExpiringHolds expiring = new ExpiringHolds(dailySheet, repository, 1)
 
     def setup() {
         dailySheet.queryForHoldsToExpireSheet() >> expiredHoldsBy(patronWithExpiringHolds, anotherPatronWithExpiringHolds)
@@ -51,12 +53,42 @@ class ExpiringHoldsTest extends Specification {
 
     }
 
+    def 'should expire all holds of a patron within one batch'() {
+        given:
+            Patrons patrons = Mock()
+        and:
+            DailySheet sheet = Stub()
+            sheet.queryForHoldsToExpireSheet() >> expiredHoldsBy(patronWithExpiringHolds, patronWithExpiringHolds)
+        when:
+            Try<BatchResult> result = new ExpiringHolds(sheet, patrons, 1).expireHolds()
+        then:
+            1 * patrons.publish({ List<PatronEvent.BookHoldExpired> events ->
+                events.size() == 2 && events.every { it.patronId == patronWithExpiringHolds.patronId } })
+            result.get() == BatchResult.FullSuccess
+    }
+
+    def 'should expire holds of a shard and report every processed patron'() {
+        given:
+            DailySheet sheet = Stub()
+            SheetShard shard = SheetShard.of(1, 4)
+            sheet.queryForHoldsToExpireSheet(shard) >> expiredHoldsBy(patronWithExpiringHolds, anotherPatronWithExpiringHolds)
+        and:
+            holdsWillBeExpiredSuccessfullyForBothPatrons()
+        and:
+            java.util.List<PatronId> processed = []
+        when:
+            Try<BatchResult> result = new ExpiringHolds(sheet, repository, 1).expireHolds(shard, { processed << it })
+        then:
+            result.get() == BatchResult.FullSuccess
+            processed as Set == [patronWithExpiringHolds, anotherPatronWithExpiringHolds] as Set
+    }
+
     void expiringHoldWillFailForSecondPatron() {
-        repository.publish(_ as PatronEvent) >>> [null, { throw new IllegalStateException() }]
+        repository.publish(_ as List) >> null >> { throw new IllegalStateException() }
     }
 
     void holdsWillBeExpiredSuccessfullyForBothPatrons() {
-        repository.publish(_ as PatronEvent) >> null
+        repository.publish(_ as List) >> null
     }
 
     HoldsToExpireSheet expiredHoldsBy(PatronId patronId, PatronId anotherPatronId) {
@@ -1,6 +1,8 @@
 package io.pillopl.library.lending.patron.application.hold
 
-
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.pillopl.library.commons.aggregates.AggregateRootIsStale
+import io.pillopl.library.commons.commands.CommandRetries
 import io.pillopl.library.commons.commands.Result
 import io.pillopl.library.lending.patron.model.Patron
 import io.pillopl.library.lending.patron.model.PatronEvent
@@ -11,6 +13,8 @@ import io.vavr.control.Option
 import io.vavr.control.Try
 import spock.lang.Specification
 
+import java.time.Duration
+
 import static io.pillopl.library.lending.book.model.BookFixture.anyBookId
 import static io.pillopl.library.lending.book.model.BookFixture.circulatingBook
 import static io.pillopl.library.lending.librarybranch.model.LibraryBranchFixture.anyBranch
@@ -86,6 +90,18 @@ class PlacingBookOnHoldTest extends Specification {
 
     }
 
+    def 'should place on hold again when patron was updated in the meantime'() {
+        given:
+            PlacingOnHold holding = new PlacingOnHold(willFindBook, repository, retries())
+        and:
+            PatronId patron = persistedRegularPatronUpdatedInTheMeantime()
+        when:
+            Try<Result> result = holding.placeOnHold(for3days(patron))
+        then:
+            result.isSuccess()
+            result.get() == Result.Success
+    }
+
     PlaceOnHoldCommand for3days(PatronId patron) {
         return PlaceOnHoldCommand.closeEnded(patron, anyBranch(), anyBookId(), 4)
     }
@@ -115,6 +131,18 @@ class PlacingBookOnHoldTest extends Specification {
         return patronId
     }
 
+    PatronId persistedRegularPatronUpdatedInTheMeantime() {
+        PatronId patronId = anyPatronId()
+        Patron patron = regularPatron(patronId)
+        repository.findBy(patronId) >> Option.of(patron)
+        repository.publish(_ as PatronEvent) >> { throw new AggregateRootIsStale("Someone has updated patron in the meantime") } >> patron
+        return patronId
+    }
+
+    CommandRetries retries() {
+        return new CommandRetries(3, Duration.ZERO, Duration.ZERO, 10, new SimpleMeterRegistry())
+    }
+
     PatronId unknownPatron() {
         return anyPatronId()
     }
@@ -0,0 +1,81 @@
+package io.pillopl.library.lending.patron.application.hold
+
+import io.pillopl.library.catalogue.BookId
+import io.pillopl.library.commons.commands.Result
+import io.pillopl.library.lending.librarybranch.model.LibraryBranchId
+import io.pillopl.library.lending.patron.model.Patron
+import io.pillopl.library.lending.patron.model.PatronEvent
+import io.pillopl.library.lending.patron.model.PatronId
+import io.pillopl.library.lending.patron.model.Patrons
+import io.vavr.collection.List
+import io.vavr.collection.Map
+import io.vavr.control.Option
+import io.vavr.control.Try
+import spock.lang.Specification
+
+import static io.pillopl.library.lending.book.model.BookFixture.anyBookId
+import static io.pillopl.library.lending.book.model.BookFixture.circulatingAvailableBookAt
+import static io.pillopl.library.lending.librarybranch.model.LibraryBranchFixture.anyBranch
+import static io.pillopl.library.lending.patron.model.PatronFixture.anyPatronId
+import static io.pillopl.library.lending.patron.model.PatronFixture.regularPatron
+
+class PlacingBooksOnHoldInBulkTest extends Specification {
+
+    LibraryBranchId branch = anyBranch()
+    BookId unavailableBook = anyBookId()
+    BookId bookAtAnotherBranch = anyBookId()
+    FindAvailableBook findAvailableBook = { id ->
+        id == unavailableBook ? Option.none() : Option.of(circulatingAvailableBookAt(id, id == bookAtAnotherBranch ? anyBranch() : branch))
+    }
+    Patrons repository = Mock()
+
+    def 'should load patron once, publish one batch of events and return result per book'() {
+        given:
+            PlacingOnHold holding = new PlacingOnHold(findAvailableBook, repository)
+        and:
+            PatronId patron = anyPatronId()
+            List<BookId> books = List.fill(6, { anyBookId() })
+        when:
+            Try<Map<BookId, Result>> result = holding.placeOnHold(for3days(patron, books.append(unavailableBook)))
+        then:
+            1 * repository.findBy(patron) >> Option.of(regularPatron(patron))
+            1 * repository.publish(_ as PatronEvent.BooksPlacedOnHoldEvents)
+        and:
+            result.isSuccess()
+            result.get().keySet().toList() == books.append(unavailableBook)
+            result.get().values().count { it == Result.Success } == 5
+            result.get().get(unavailableBook).get() == Result.Rejection
+    }
+
+    def 'should reject books available at another library branch'() {
+        given:
+            PlacingOnHold holding = new PlacingOnHold(findAvailableBook, repository)
+        and:
+            PatronId patron = anyPatronId()
+            BookId book = anyBookId()
+        when:
+            Try<Map<BookId, Result>> result = holding.placeOnHold(for3days(patron, List.of(book, bookAtAnotherBranch)))
+        then:
+            1 * repository.findBy(patron) >> Option.of(regularPatron(patron))
+            1 * repository.publish({ PatronEvent.BooksPlacedOnHoldEvents events ->
+                events.booksPlacedOnHold.map { it.bookId } == List.of(book.bookId) })
+        and:
+            result.get().get(book).get() == Result.Success
+            result.get().get(bookAtAnotherBranch).get() == Result.Rejection
+    }
+
+    def 'should fail if patron does not exists'() {
+        given:
+            PlacingOnHold holding = new PlacingOnHold(findAvailableBook, repository)
+        and:
+            repository.findBy(_) >> Option.none()
+        when:
+            Try<Map<BookId, Result>> result = holding.placeOnHold(for3days(anyPatronId(), List.of(anyBookId())))
+        then:
+            result.isFailure()
+    }
+
+    PlaceOnHoldInBulkCommand for3days(PatronId patron, List<BookId> books) {
+        return PlaceOnHoldInBulkCommand.closeEnded(patron, branch, books, 3)
+    }
+}
@@ -117,6 +117,34 @@ class CreatingDataModelFromPatronEventsTest extends Specification {
 
     }
 
+    def 'should remove only the hold at given branch when the same book is on hold at several branches'() {
+        given:
+            PatronDatabaseEntity entity = createPatron()
+        and:
+            LibraryBranchId otherBranch = anyBranch()
+        when:
+            entity.handle(placedOnHold())
+            entity.handle(placedOnHoldAt(otherBranch))
+        then:
+            entity.booksOnHold.size() == 2
+        when:
+            entity.handle(holdCanceled())
+        then:
+            entity.booksOnHold.size() == 1
+            entity.booksOnHold.iterator().next().libraryBranchId == otherBranch.libraryBranchId
+    }
+
+    def 'should ignore removal of a hold that is not there'() {
+        given:
+            PatronDatabaseEntity entity = createPatron()
+        when:
+            entity.handle(placedOnHoldAt(anyBranch()))
+        and:
+            entity.handle(bookHoldExpired())
+        then:
+            entity.booksOnHold.size() == 1
+    }
+
     PatronDatabaseEntity createPatron() {
         return new PatronDatabaseEntity(patronId, Regular)
     }
@@ -155,6 +183,15 @@ class CreatingDataModelFromPatronEventsTest extends Specification {
                 duration))
     }
 
+    PatronEvent.BookPlacedOnHoldEvents placedOnHoldAt(LibraryBranchId branch) {
+        return events(bookPlacedOnHoldNow(
+                bookId,
+                type,
+                branch,
+                patronId,
+                closeEnded(5)))
+    }
+
     PatronEvent.BookHoldExpired bookHoldExpired() {
         return PatronEvent.BookHoldExpired.now(
                 bookId,
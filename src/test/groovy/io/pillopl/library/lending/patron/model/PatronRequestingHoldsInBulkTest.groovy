@@ -0,0 +1,49 @@
+package io.pillopl.library.lending.patron.model
+
+import io.pillopl.library.lending.book.model.AvailableBook
+import io.vavr.collection.List
+import spock.lang.Specification
+
+import static io.pillopl.library.lending.book.model.BookFixture.circulatingBook
+import static io.pillopl.library.lending.book.model.BookFixture.restrictedBook
+import static io.pillopl.library.lending.patron.model.HoldDuration.closeEnded
+import static PatronEvent.BooksPlacedOnHoldEvents
+import static PatronFixture.regularPatronWithHolds
+import static PatronFixture.researcherPatronWithHolds
+
+class PatronRequestingHoldsInBulkTest extends Specification {
+
+    def 'regular patron should get holds only up to the maximum, counting holds placed earlier in the batch'() {
+        given:
+            List<AvailableBook> books = List.fill(4, { circulatingBook() })
+        when:
+            BooksPlacedOnHoldEvents events = regularPatronWithHolds(2).placeOnHold(books, closeEnded(3))
+        then:
+            events.booksPlacedOnHold.map { it.bookId } == books.take(3).map { it.bookId.bookId }
+            events.booksHoldFailed.map { it.bookId } == books.drop(3).map { it.bookId.bookId }
+            events.maximumNumberOhHoldsReached.isDefined()
+            events.maximumNumberOhHoldsReached.get().numberOfHolds == 5
+    }
+
+    def 'rejection of one book should not stop the rest of the batch'() {
+        given:
+            AvailableBook restricted = restrictedBook()
+            AvailableBook circulating = circulatingBook()
+        when:
+            BooksPlacedOnHoldEvents events = regularPatronWithHolds(0).placeOnHold(List.of(restricted, circulating), closeEnded(3))
+        then:
+            events.booksPlacedOnHold.map { it.bookId } == List.of(circulating.bookId.bookId)
+            events.booksHoldFailed.map { it.bookId } == List.of(restricted.bookId.bookId)
+    }
+
+    def 'researcher patron should get all holds of the batch'() {
+        given:
+            List<AvailableBook> books = List.fill(50, { circulatingBook() })
+        when:
+            BooksPlacedOnHoldEvents events = researcherPatronWithHolds(10).placeOnHold(books, closeEnded(3))
+        then:
+            events.booksPlacedOnHold.size() == 50
+            events.booksHoldFailed.isEmpty()
+            events.normalize().size() == 50 + events.maximumNumberOhHoldsReached.size()
+    }
+}
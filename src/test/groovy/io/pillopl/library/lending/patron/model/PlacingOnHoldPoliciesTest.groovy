@@ -0,0 +1,68 @@
+package io.pillopl.library.lending.patron.model
+
+import io.pillopl.library.lending.book.model.AvailableBook
+import io.pillopl.library.lending.librarybranch.model.LibraryBranchId
+import io.vavr.collection.HashMap
+import io.vavr.collection.List
+import spock.lang.Specification
+
+import static io.pillopl.library.lending.book.model.BookFixture.circulatingAvailableBook
+import static io.pillopl.library.lending.book.model.BookFixture.restrictedBook
+import static io.pillopl.library.lending.patron.model.PatronFixture.anyPatronId
+import static io.pillopl.library.lending.patron.model.PatronType.Regular
+
+class PlacingOnHoldPoliciesTest extends Specification {
+
+    AvailableBook restrictedBook = restrictedBook()
+
+    def 'should apply policies configured for the branch of the book instead of the default ones'() {
+        given:
+            PlacingOnHoldPolicies policies = PlacingOnHoldPolicies.configured(
+                    PlacingOnHoldPolicies.availablePolicies(),
+                    HashMap.of(restrictedBook.libraryBranch, List.of("regular-patron-maximum-holds")))
+        expect:
+            regularPatronWith(policies).placeOnHold(restrictedBook, HoldDuration.closeEnded(3)).isRight()
+            regularPatronWith(policies).placeOnHold(restrictedBook(), HoldDuration.closeEnded(3)).isLeft()
+    }
+
+    def 'should not accept unknown policies'() {
+        when:
+            PlacingOnHoldPolicies.configured(List.of("no-such-policy"), HashMap.<LibraryBranchId, List<String>> empty())
+        then:
+            thrown(IllegalArgumentException)
+    }
+
+    def 'should count evaluations and rejections per policy and stop at the first rejection'() {
+        given:
+            PlacingOnHoldPolicies policies = PlacingOnHoldPolicies.allCurrentPolicies()
+        when:
+            regularPatronWith(policies).placeOnHold(restrictedBook, HoldDuration.closeEnded(3))
+        then:
+            with(policies.statistics().find { it.policy() == "only-researchers-hold-restricted-books" }.get()) {
+                evaluations() == 1
+                rejections() == 1
+                rejectionRate() == 1.0d
+            }
+            policies.statistics().filter { it.policy() != "only-researchers-hold-restricted-books" }.forAll { it.evaluations() == 0 }
+    }
+
+    def 'should check policies which reject most often first'() {
+        given:
+            PlacingOnHoldPolicies policies = PlacingOnHoldPolicies.configured(
+                    List.of("only-researchers-hold-restricted-books", "only-researchers-place-open-ended-holds"),
+                    HashMap.<LibraryBranchId, List<String>> empty())
+            Patron patron = regularPatronWith(policies)
+        when:
+            String firstReason = patron.placeOnHold(restrictedBook(), HoldDuration.openEnded()).getLeft().reason
+        then:
+            firstReason == "Regular patrons cannot hold restricted books"
+        when:
+            PlacingOnHoldPolicies.REORDER_EVERY.times { patron.placeOnHold(circulatingAvailableBook(), HoldDuration.openEnded()) }
+        then:
+            patron.placeOnHold(restrictedBook(), HoldDuration.openEnded()).getLeft().reason == "regular patron cannot place open ended holds"
+    }
+
+    Patron regularPatronWith(PlacingOnHoldPolicies policies) {
+        return new PatronFactory(policies).create(Regular, anyPatronId(), [] as Set, [:])
+    }
+}
@@ -0,0 +1,121 @@
+package io.pillopl.library.lending.patronprofile.infrastructure
+
+import io.pillopl.library.catalogue.BookId
+import io.pillopl.library.lending.librarybranch.model.LibraryBranchId
+import io.pillopl.library.lending.patron.model.PatronEvent
+import io.pillopl.library.lending.patron.model.PatronId
+import io.pillopl.library.lending.patronprofile.model.Checkout
+import io.pillopl.library.lending.patronprofile.model.Hold
+import io.pillopl.library.lending.patronprofile.model.PatronProfile
+import io.vavr.control.Option
+import spock.lang.Specification
+
+import java.time.Duration
+import java.time.Instant
+
+import static io.pillopl.library.catalogue.BookType.Restricted
+import static io.pillopl.library.lending.book.model.BookFixture.anyBookId
+import static io.pillopl.library.lending.librarybranch.model.LibraryBranchFixture.anyBranch
+import static io.pillopl.library.lending.patron.model.PatronFixture.anyPatronId
+import static java.time.Instant.now
+
+class PatronProfileProjectionTest extends Specification {
+
+    static final Instant TOMORROW = now().plus(Duration.ofDays(1))
+
+    PatronId patronId = anyPatronId()
+    LibraryBranchId libraryBranchId = anyBranch()
+    BookId bookId = anyBookId()
+
+    PatronProfileProjection projection = new PatronProfileProjection()
+
+    def 'should keep holds and checkouts of a patron current with patron events'() {
+        when:
+            projection.handle(placedOnHold())
+        then:
+            projection.findHold(patronId, bookId) == Option.of(new Hold(bookId, TOMORROW))
+            projection.fetchFor(patronId).holdsView.currentHolds.size() == 1
+        when:
+            projection.handle(checkedOut())
+        then:
+            projection.findHold(patronId, bookId).isEmpty()
+            projection.findCheckout(patronId, bookId) == Option.of(new Checkout(bookId, TOMORROW))
+        when:
+            projection.handle(returned())
+        then:
+            thereIsNothingFor(projection.fetchFor(patronId))
+    }
+
+    def 'should remove holds which were canceled or expired'() {
+        given:
+            projection.handle(placedOnHold())
+        when:
+            projection.handle(new PatronEvent.BookHoldCanceled(now(), patronId.patronId, bookId.bookId, libraryBranchId.libraryBranchId))
+        then:
+            thereIsNothingFor(projection.fetchFor(patronId))
+        when:
+            projection.handle(placedOnHold())
+            projection.handle(new PatronEvent.BookHoldExpired(now(), patronId.patronId, bookId.bookId, libraryBranchId.libraryBranchId))
+        then:
+            projection.findHold(patronId, bookId).isEmpty()
+            thereIsNothingFor(projection.fetchFor(patronId))
+    }
+
+    def 'should not mix profiles of different patrons'() {
+        given:
+            projection.handle(placedOnHold())
+        expect:
+            thereIsNothingFor(projection.fetchFor(anyPatronId()))
+            projection.findHold(anyPatronId(), bookId).isEmpty()
+    }
+
+    def 'should version a profile by the last event applied to it'() {
+        given:
+            String empty = projection.versionOf(patronId).get()
+        when:
+            PatronEvent.BookPlacedOnHold placedOnHold = placedOnHold()
+            projection.handle(placedOnHold)
+        then:
+            projection.versionOf(patronId) == Option.of(placedOnHold.eventId.toString())
+            projection.versionOf(anyPatronId()) == Option.of(empty)
+        when:
+            projection.handle(new PatronEvent.BookHoldCanceled(now(), patronId.patronId, bookId.bookId, libraryBranchId.libraryBranchId))
+        then:
+            projection.versionOf(patronId) == Option.of(empty)
+    }
+
+    void thereIsNothingFor(PatronProfile profile) {
+        assert profile.holdsView.currentHolds.isEmpty()
+        assert profile.currentCheckouts.currentCheckouts.isEmpty()
+    }
+
+    PatronEvent.BookPlacedOnHold placedOnHold() {
+        return new PatronEvent.BookPlacedOnHold(
+                now(),
+                patronId.patronId,
+                bookId.bookId,
+                Restricted,
+                libraryBranchId.libraryBranchId,
+                now(),
+                TOMORROW)
+    }
+
+    PatronEvent.BookCheckedOut checkedOut() {
+        return new PatronEvent.BookCheckedOut(
+                now(),
+                patronId.patronId,
+                bookId.bookId,
+                Restricted,
+                libraryBranchId.libraryBranchId,
+                TOMORROW)
+    }
+
+    PatronEvent.BookReturned returned() {
+        return new PatronEvent.BookReturned(
+                now(),
+                patronId.patronId,
+                bookId.bookId,
+                Restricted,
+                libraryBranchId.libraryBranchId)
+    }
+}
@@ -0,0 +1,112 @@
+package io.pillopl.library.lending.patronprofile.web
+
+import io.pillopl.library.catalogue.BookId
+import io.pillopl.library.lending.librarybranch.model.LibraryBranchId
+import io.pillopl.library.lending.patron.application.hold.CancelingHold
+import io.pillopl.library.lending.patron.application.hold.FindAvailableBook
+import io.pillopl.library.lending.patron.application.hold.FindBookOnHold
+import io.pillopl.library.lending.patron.application.hold.PlacingOnHold
+import io.pillopl.library.lending.patron.model.PatronEvent
+import io.pillopl.library.lending.patron.model.PatronId
+import io.pillopl.library.lending.patron.model.Patrons
+import io.pillopl.library.lending.patronprofile.model.Checkout
+import io.pillopl.library.lending.patronprofile.model.PatronProfiles
+import io.vavr.control.Option
+import org.springframework.http.HttpHeaders
+import org.springframework.http.MediaType
+import org.springframework.test.web.servlet.MockMvc
+import spock.lang.Specification
+
+import java.time.Instant
+
+import static io.pillopl.library.lending.book.model.BookFixture.anyBookId
+import static io.pillopl.library.lending.book.model.BookFixture.circulatingAvailableBookAt
+import static io.pillopl.library.lending.librarybranch.model.LibraryBranchFixture.anyBranch
+import static io.pillopl.library.lending.patron.model.PatronFixture.anyPatronId
+import static io.pillopl.library.lending.patron.model.PatronFixture.regularPatron
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup
+
+class PatronProfileControllerTest extends Specification {
+
+    PatronId patronId = anyPatronId()
+    LibraryBranchId branch = anyBranch()
+    BookId availableBook = anyBookId()
+    BookId unavailableBook = anyBookId()
+
+    FindAvailableBook findAvailableBook = { id -> id == availableBook ? Option.of(circulatingAvailableBookAt(id, branch)) : Option.none() }
+    FindBookOnHold findBookOnHold = Stub()
+    Patrons patrons = Stub()
+    PatronProfiles patronProfiles = Stub()
+
+    MockMvc mvc = standaloneSetup(new PatronProfileController(
+            patronProfiles,
+            new PlacingOnHold(findAvailableBook, patrons),
+            new CancelingHold(findBookOnHold, patrons)))
+            .build()
+
+    def 'should place holds in bulk and report the placement of every book'() {
+        given:
+            patrons.findBy(patronId) >> Option.of(regularPatron(patronId))
+            patrons.publish(_ as PatronEvent) >> regularPatron(patronId)
+        expect:
+            mvc.perform(post("/profiles/${patronId.patronId}/holds/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("""{"bookIds": ["${availableBook.bookId}", "${unavailableBook.bookId}"], "libraryBranchId": "${branch.libraryBranchId}", "numberOfDays": 3}"""))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath('$.length()').value(2))
+                    .andExpect(jsonPath('$[0].bookId').value(availableBook.bookId.toString()))
+                    .andExpect(jsonPath('$[0].result').value("Success"))
+                    .andExpect(jsonPath('$[1].bookId').value(unavailableBook.bookId.toString()))
+                    .andExpect(jsonPath('$[1].result').value("Rejection"))
+    }
+
+    def 'should answer 500 when holds in bulk could not be placed'() {
+        given:
+            patrons.findBy(patronId) >> Option.none()
+        expect:
+            mvc.perform(post("/profiles/${patronId.patronId}/holds/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("""{"bookIds": ["${availableBook.bookId}"], "libraryBranchId": "${branch.libraryBranchId}", "numberOfDays": 3}"""))
+                    .andExpect(status().isInternalServerError())
+    }
+
+    def 'should tag a profile with a single ETag of its version and let clients revalidate it'() {
+        given:
+            patronProfiles.versionOf(patronId) >> Option.of("v1")
+            patronProfiles.findCheckout(patronId, availableBook) >> Option.of(new Checkout(availableBook, Instant.now()))
+        expect:
+            mvc.perform(get("/profiles/${patronId.patronId}/checkouts/${availableBook.bookId}"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().stringValues(HttpHeaders.ETAG, '"v1"'))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+    }
+
+    def 'should answer 304 without a body when the client has the current version of a profile'() {
+        given:
+            patronProfiles.versionOf(patronId) >> Option.of("v1")
+        expect:
+            mvc.perform(get("/profiles/${patronId.patronId}/checkouts/${availableBook.bookId}")
+                    .header(HttpHeaders.IF_NONE_MATCH, '"v1"'))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().stringValues(HttpHeaders.ETAG, '"v1"'))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                    .andExpect(content().string(""))
+    }
+
+    def 'should answer 200 when the client has an outdated version of a profile'() {
+        given:
+            patronProfiles.versionOf(patronId) >> Option.of("v2")
+            patronProfiles.findCheckout(patronId, availableBook) >> Option.of(new Checkout(availableBook, Instant.now()))
+        expect:
+            mvc.perform(get("/profiles/${patronId.patronId}/checkouts/${availableBook.bookId}")
+                    .header(HttpHeaders.IF_NONE_MATCH, '"v1"'))
+                    .andExpect(status().isOk())
+                    .andExpect(header().stringValues(HttpHeaders.ETAG, '"v2"'))
+    }
+}
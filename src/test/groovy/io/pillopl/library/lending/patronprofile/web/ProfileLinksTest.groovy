@@ -0,0 +1,40 @@
+package io.pillopl.library.lending.patronprofile.web
+
+import org.springframework.hateoas.Link
+import org.springframework.hateoas.MediaTypes
+import org.springframework.http.HttpMethod
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.web.context.request.RequestContextHolder
+import org.springframework.web.context.request.ServletRequestAttributes
+import spock.lang.Specification
+
+class ProfileLinksTest extends Specification {
+
+    UUID patronId = UUID.randomUUID()
+
+    def setup() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()))
+    }
+
+    def cleanup() {
+        RequestContextHolder.resetRequestAttributes()
+    }
+
+    def 'should afford canceling every hold at its own URI'() {
+        given:
+            ProfileLinks links = new ProfileLinks(patronId)
+            List<UUID> books = [UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()]
+        when:
+            List<Link> holds = books.collect { links.hold(it) }
+        then:
+            holds.every { it.affordances.size() == 1 }
+            holds.collect { cancelHoldAffordanceOf(it).link.href } ==
+                    books.collect { "http://localhost/profiles/${patronId}/holds/${it}".toString() }
+            holds.every { cancelHoldAffordanceOf(it).httpMethod == HttpMethod.DELETE }
+            holds.every { cancelHoldAffordanceOf(it).name == "cancelHold" }
+    }
+
+    def cancelHoldAffordanceOf(Link hold) {
+        return hold.affordances.first().getAffordanceModel(MediaTypes.HAL_FORMS_JSON)
+    }
+}